@@ -7,8 +7,10 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
 import com.viettridao.cafe.model.AccountEntity;
+import com.viettridao.cafe.service.LowStockAlertService;
 
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 
 /**
  * Lớp GlobalModelAttribute dùng để cung cấp các biến dùng chung cho toàn bộ
@@ -16,8 +18,11 @@ import jakarta.servlet.http.HttpServletRequest;
  * tất cả các request mà không cần khai báo lại.
  */
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalModelAttribute {
 
+	private final LowStockAlertService lowStockAlertService;
+
 	/**
 	 * Gán đường dẫn hiện tại (URI) của request vào model với tên "currentPath".
 	 * Giúp view (ví dụ: Thymeleaf) có thể hiển thị hay so sánh đường dẫn hiện tại
@@ -49,4 +54,15 @@ public class GlobalModelAttribute {
 
 		return null;
 	}
+
+	/**
+	 * Gán số sản phẩm sắp hết hàng vào model với tên "lowStockCount" để hiển thị
+	 * huy hiệu trên menu. Đọc từ bảng chỉ mục trong bộ nhớ, không truy vấn CSDL.
+	 *
+	 * @return Số sản phẩm có tồn kho không vượt quá ngưỡng đặt hàng lại.
+	 */
+	@ModelAttribute("lowStockCount")
+	public int addLowStockCount() {
+		return lowStockAlertService.getAlertCount();
+	}
 }
@@ -0,0 +1,18 @@
+package com.viettridao.cafe.common;
+
+/**
+ * Enum đại diện cho loại bút toán trong sổ thu chi (ledger_entries). Loại cho
+ * biết bút toán là khoản thu hay khoản chi và mã tham chiếu trỏ tới bảng nào.
+ */
+public enum LedgerEntryType {
+	INVOICE, // Thu: hóa đơn đã thanh toán (tham chiếu invoices)
+	EXPENSE, // Chi: khoản chi tiêu (tham chiếu expenses)
+	EQUIPMENT; // Chi: mua thiết bị (tham chiếu equipment)
+
+	/**
+	 * @return true nếu bút toán loại này là khoản thu
+	 */
+	public boolean isIncome() {
+		return this == INVOICE;
+	}
+}
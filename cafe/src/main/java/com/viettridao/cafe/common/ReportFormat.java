@@ -0,0 +1,21 @@
+package com.viettridao.cafe.common;
+
+import java.util.Locale;
+
+/**
+ * Enum đại diện cho định dạng file khi xuất báo cáo. Chỉ các giá trị trong enum
+ * được chấp nhận, nên tên file và phần mở rộng luôn do hệ thống tạo ra.
+ */
+public enum ReportFormat {
+	PDF, // Tài liệu PDF
+	TXT, // Văn bản phân cách bằng tab
+	XLS, // Văn bản phân cách bằng tab, mở bằng Excel
+	SQL; // Văn bản phân cách bằng tab, phần mở rộng .sql
+
+	/**
+	 * @return phần mở rộng của file (không có dấu chấm), ví dụ pdf
+	 */
+	public String extension() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,62 @@
+package com.viettridao.cafe.common;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Enum đại diện cho mức gộp thời gian của báo cáo thu chi (theo ngày, tuần,
+ * tháng, quý, năm).
+ */
+public enum ReportGranularity {
+	DAY, // Theo ngày
+	WEEK, // Theo tuần (bắt đầu từ thứ Hai)
+	MONTH, // Theo tháng
+	QUARTER, // Theo quý
+	YEAR; // Theo năm
+
+	private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MM/yyyy");
+
+	/**
+	 * Lấy ngày đầu tiên của kỳ chứa ngày được truyền vào.
+	 */
+	public LocalDate startOf(LocalDate date) {
+		return switch (this) {
+		case DAY -> date;
+		case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+		case MONTH -> date.withDayOfMonth(1);
+		case QUARTER -> date.with(IsoFields.DAY_OF_QUARTER, 1);
+		case YEAR -> date.withDayOfYear(1);
+		};
+	}
+
+	/**
+	 * Lấy ngày đầu tiên của kỳ kế tiếp.
+	 */
+	public LocalDate next(LocalDate date) {
+		LocalDate start = startOf(date);
+		return switch (this) {
+		case DAY -> start.plusDays(1);
+		case WEEK -> start.plusWeeks(1);
+		case MONTH -> start.plusMonths(1);
+		case QUARTER -> start.plusMonths(3);
+		case YEAR -> start.plusYears(1);
+		};
+	}
+
+	/**
+	 * Tên hiển thị của kỳ chứa ngày được truyền vào.
+	 */
+	public String label(LocalDate date) {
+		return switch (this) {
+		case DAY -> date.format(DAY_FORMAT);
+		case WEEK -> "Tuần " + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR) + "/" + date.get(IsoFields.WEEK_BASED_YEAR);
+		case MONTH -> "Tháng " + date.format(MONTH_FORMAT);
+		case QUARTER -> "Quý " + date.get(IsoFields.QUARTER_OF_YEAR) + "/" + date.getYear();
+		case YEAR -> "Năm " + date.getYear();
+		};
+	}
+}
@@ -0,0 +1,19 @@
+package com.viettridao.cafe.common;
+
+/**
+ * Enum đại diện cho trạng thái của một tác vụ xuất báo cáo chạy nền.
+ */
+public enum ReportJobStatus {
+
+	// Tác vụ đang chờ trong hàng đợi.
+	QUEUED,
+
+	// Tác vụ đang được thực hiện.
+	RUNNING,
+
+	// Tác vụ đã hoàn tất, file sẵn sàng để tải về.
+	DONE,
+
+	// Tác vụ bị lỗi.
+	FAILED
+}
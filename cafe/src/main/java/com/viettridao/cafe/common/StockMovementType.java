@@ -0,0 +1,12 @@
+package com.viettridao.cafe.common;
+
+/**
+ * Enum đại diện cho loại biến động tồn kho trong sổ kho (stock_movements).
+ */
+public enum StockMovementType {
+	OPENING, // Số dư đầu kỳ khi bắt đầu ghi sổ kho
+	IMPORT, // Nhập hàng
+	EXPORT, // Xuất hàng
+	CONSUMPTION, // Tiêu hao nguyên liệu theo công thức món
+	ADJUSTMENT // Điều chỉnh số lượng thủ công (sửa sản phẩm)
+}
@@ -7,6 +7,7 @@ import java.time.LocalDate;
 import java.util.Locale;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -18,8 +19,11 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.viettridao.cafe.dto.request.expenses.BudgetFilterRequest;
 import com.viettridao.cafe.dto.request.expenses.ExpenseRequest;
+import com.viettridao.cafe.dto.response.expenses.BudgetCursorPageResponse;
+import com.viettridao.cafe.dto.response.expenses.BudgetTotalsResponse;
 import com.viettridao.cafe.dto.response.expenses.BudgetViewResponse;
 import com.viettridao.cafe.service.BudgetService;
+import com.viettridao.cafe.service.BudgetTotalsService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +40,9 @@ public class BudgetController {
 	// Inject BudgetService để gọi các nghiệp vụ xử lý chi tiêu
 	private final BudgetService budgetService;
 
+	// Inject BudgetTotalsService để tính tổng thu chi của cả khoảng thời gian
+	private final BudgetTotalsService budgetTotalsService;
+
 	/**
 	 * Định dạng số thành tiền tệ theo chuẩn Việt Nam. Nếu là số nguyên thì format
 	 * dạng có phân cách hàng nghìn. Nếu là số thập phân thì format đến 2 chữ số sau
@@ -73,20 +80,27 @@ public class BudgetController {
 			return "budget/list";
 		}
 
-		// Lấy dữ liệu chi tiêu từ service
-		Page<BudgetViewResponse> budgetPage = budgetService.getBudgetView(filter);
+		// Lấy dữ liệu chi tiêu từ service: theo con trỏ nếu có tham số cursor, ngược
+		// lại theo số trang
+		Page<BudgetViewResponse> budgetPage;
+		if (filter.getCursor() != null) {
+			BudgetCursorPageResponse cursorPage = budgetService.getBudgetViewByCursor(filter);
+			budgetPage = new PageImpl<>(cursorPage.getContent());
+			model.addAttribute("nextCursor", cursorPage.getNextCursor());
+			model.addAttribute("prevCursor", cursorPage.getPrevCursor());
+		} else {
+			budgetPage = budgetService.getBudgetView(filter);
+		}
 		model.addAttribute("budgetPage", budgetPage);
 		model.addAttribute("filter", filter);
 
-		// Tính tổng thu nhập và chi tiêu trong khoảng thời gian lọc
-		double totalIncome = budgetPage.getContent().stream()
-				.mapToDouble(item -> item.getIncome() != null ? item.getIncome() : 0.0).sum();
-		double totalExpense = budgetPage.getContent().stream()
-				.mapToDouble(item -> item.getExpense() != null ? item.getExpense() : 0.0).sum();
+		// Tính tổng thu nhập và chi tiêu của cả khoảng thời gian lọc (không chỉ trang
+		// đang xem)
+		BudgetTotalsResponse totals = budgetTotalsService.getTotals(filter.getFromDate(), filter.getToDate());
 
 		// Định dạng và đưa tổng vào model để hiển thị
-		model.addAttribute("totalIncomeText", formatCurrency(totalIncome));
-		model.addAttribute("totalExpenseText", formatCurrency(totalExpense));
+		model.addAttribute("totalIncomeText", formatCurrency(totals.getTotalIncome()));
+		model.addAttribute("totalExpenseText", formatCurrency(totals.getTotalExpense()));
 
 		// Nếu có thông báo thành công/thất bại từ redirect trước đó thì hiển thị
 		if (success != null && !success.isEmpty()) {
@@ -0,0 +1,51 @@
+package com.viettridao.cafe.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.viettridao.cafe.service.ItemAnalyticsService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controller hiển thị thống kê món bán chạy theo số lượng và doanh thu.
+ */
+@Controller
+@RequestMapping("/report/items")
+@RequiredArgsConstructor
+public class ItemAnalyticsController {
+
+	private final ItemAnalyticsService itemAnalyticsService;
+
+	/**
+	 * Hiển thị các món bán chạy nhất trong khoảng thời gian (mặc định 7 ngày gần
+	 * nhất).
+	 */
+	@GetMapping
+	public String getTopItems(
+			@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(value = "limit", defaultValue = "10") int limit, Model model) {
+		LocalDate toDate = to != null ? to : LocalDate.now();
+		LocalDate fromDate = from != null ? from : toDate.minusDays(7);
+		int size = Math.min(Math.max(limit, 1), 100);
+
+		if (fromDate.isAfter(toDate)) {
+			model.addAttribute("error", "Ngày kết thúc phải sau hoặc bằng ngày bắt đầu");
+		} else {
+			model.addAttribute("topByQuantity", itemAnalyticsService.getTopByQuantity(fromDate, toDate, size));
+			model.addAttribute("topByRevenue", itemAnalyticsService.getTopByRevenue(fromDate, toDate, size));
+		}
+
+		model.addAttribute("from", fromDate);
+		model.addAttribute("to", toDate);
+		model.addAttribute("limit", size);
+		return "report/items";
+	}
+}
@@ -1,13 +1,11 @@
 package com.viettridao.cafe.controller;
 
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,19 +17,24 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import com.lowagie.text.Document;
-import com.lowagie.text.FontFactory;
-import com.lowagie.text.PageSize;
-import com.lowagie.text.Paragraph;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
+import com.viettridao.cafe.common.ReportFormat;
+import com.viettridao.cafe.common.ReportGranularity;
 import com.viettridao.cafe.common.ReportType;
 import com.viettridao.cafe.dto.request.reportstatistics.ReportFilterRequest;
 import com.viettridao.cafe.dto.response.employee.EmployeeDailySalaryResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.DailySummaryCheckResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.ReportCacheStatsResponse;
 import com.viettridao.cafe.dto.response.reportstatistics.ReportItemResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.SalesHeatmapResponse;
+import com.viettridao.cafe.service.DailySummaryService;
+import com.viettridao.cafe.service.ReportCacheService;
+import com.viettridao.cafe.service.ReportExportService;
 import com.viettridao.cafe.service.ReportService;
+import com.viettridao.cafe.service.SalesHeatmapService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -45,6 +48,10 @@ import lombok.RequiredArgsConstructor;
 public class ReportController {
 
 	private final ReportService reportService;
+	private final ReportExportService reportExportService;
+	private final DailySummaryService dailySummaryService;
+	private final ReportCacheService reportCacheService;
+	private final SalesHeatmapService salesHeatmapService;
 
 	/**
 	 * Hiển thị trang nhập điều kiện lọc báo cáo.
@@ -57,6 +64,7 @@ public class ReportController {
 
 	    model.addAttribute("reportFilterRequest", filter);
 	    model.addAttribute("types", Arrays.asList(ReportType.values()));
+	    model.addAttribute("granularities", Arrays.asList(ReportGranularity.values()));
 	    return "report/statistics";
 	}
 
@@ -75,6 +83,7 @@ public class ReportController {
 
 		if (bindingResult.hasErrors()) {
 			model.addAttribute("types", Arrays.asList(ReportType.values()));
+			model.addAttribute("granularities", Arrays.asList(ReportGranularity.values()));
 			return "report/statistics";
 		}
 
@@ -82,12 +91,18 @@ public class ReportController {
 		LocalDate from = request.getFromDate();
 		LocalDate to = request.getToDate();
 		ReportType type = request.getCategory() != null ? ReportType.valueOf(request.getCategory()) : ReportType.ALL;
+		ReportGranularity granularity = request.getGranularity() != null ? request.getGranularity()
+				: ReportGranularity.DAY;
 
 		if (type == ReportType.EMPLOYEE_INFO) {
-			List<EmployeeDailySalaryResponse> employeeSalaries = reportService.getEmployeeDailySalaries(from, to);
-			model.addAttribute("employeeSalaries", employeeSalaries);
+			// Chỉ tạo các dòng của trang đang xem thay vì toàn bộ nhân viên x ngày
+			Page<EmployeeDailySalaryResponse> salaryPage = reportService.getEmployeeDailySalaries(from, to,
+					PageRequest.of(Math.max(request.getPage(), 0), Math.max(request.getSize(), 1)));
+			model.addAttribute("employeeSalaryPage", salaryPage);
+			model.addAttribute("employeeSalaries", salaryPage.getContent());
 		} else {
-			List<ReportItemResponse> reports = reportService.getReport(from, to, type);
+			// Gộp theo kỳ để khoảng thời gian dài chỉ còn ít dòng
+			List<ReportItemResponse> reports = reportService.getReport(from, to, type, granularity);
 			double totalRevenue = reports.stream().mapToDouble(r -> r.getRevenue() != null ? r.getRevenue() : 0.0)
 					.sum();
 			double totalExpense = reports.stream().mapToDouble(r -> r.getExpense() != null ? r.getExpense() : 0.0)
@@ -101,130 +116,85 @@ public class ReportController {
 		model.addAttribute("from", from);
 		model.addAttribute("to", to);
 		model.addAttribute("type", type);
+		model.addAttribute("granularity", granularity);
 		model.addAttribute("types", Arrays.asList(ReportType.values()));
+		model.addAttribute("granularities", Arrays.asList(ReportGranularity.values()));
 		return "report/statistics";
 	}
 
 	/**
-	 * Xử lý xuất file báo cáo theo định dạng PDF hoặc TXT.
+	 * Xử lý xuất file báo cáo theo định dạng PDF hoặc TXT. Nội dung được ghi thẳng
+	 * ra luồng phản hồi trong khi đọc dữ liệu, không dựng toàn bộ file trong bộ
+	 * nhớ.
 	 */
 	@GetMapping("/export")
-	public ResponseEntity<Resource> exportReport(@RequestParam("from") LocalDate from, @RequestParam("to") LocalDate to,
-			@RequestParam("type") ReportType type, @RequestParam("format") String format) {
-		try {
-			byte[] data;
-			String fileName;
-
-			if ("PDF".equalsIgnoreCase(format)) {
-				// Tạo báo cáo PDF
-				ByteArrayOutputStream out = new ByteArrayOutputStream();
-				Document document = new Document(PageSize.A4);
-				PdfWriter.getInstance(document, out);
-				document.open();
-
-				if (type == ReportType.EMPLOYEE_INFO) {
-					// Báo cáo lương nhân viên
-					List<EmployeeDailySalaryResponse> employeeSalaries = reportService.getEmployeeDailySalaries(from,
-							to);
-					document.add(new Paragraph("📊 Báo cáo lương nhân viên",
-							FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16)));
-					document.add(new Paragraph(" "));
-					PdfPTable table = new PdfPTable(3);
-					table.setWidthPercentage(100);
-					table.addCell("Tên nhân viên");
-					table.addCell("Ngày");
-					table.addCell("Lương/ngày");
-
-					for (EmployeeDailySalaryResponse e : employeeSalaries) {
-						table.addCell(e.getFullName());
-						table.addCell(e.getDate().toString());
-						table.addCell(String.format("%.0f đ", e.getDailySalary()));
-					}
-					document.add(table);
-				} else {
-					// Báo cáo tài chính
-					List<ReportItemResponse> reports = reportService.getReport(from, to, type);
-
-					double totalRevenue = reports.stream().mapToDouble(r -> r.getRevenue() != null ? r.getRevenue() : 0)
-							.sum();
-					double totalExpense = reports.stream().mapToDouble(r -> r.getExpense() != null ? r.getExpense() : 0)
-							.sum();
-
-					document.add(
-							new Paragraph("📊 Báo cáo tài chính", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16)));
-					document.add(new Paragraph(" "));
-					PdfPTable table = new PdfPTable(3);
-					table.setWidthPercentage(100);
-					table.addCell("Ngày");
-					table.addCell("Thu");
-					table.addCell("Chi");
-
-					for (ReportItemResponse r : reports) {
-						table.addCell(r.getDate().toString());
-						table.addCell(String.format("%.0f đ", r.getRevenue() != null ? r.getRevenue() : 0.0));
-						table.addCell(String.format("%.0f đ", r.getExpense() != null ? r.getExpense() : 0.0));
-					}
-
-					// Thêm dòng tổng
-					table.addCell("Tổng:");
-					table.addCell(String.format("%.0f đ", totalRevenue));
-					table.addCell(String.format("%.0f đ", totalExpense));
-
-					document.add(table);
-				}
-
-				document.close();
-				data = out.toByteArray();
-				fileName = "report.pdf";
-
-			} else {
-				// Tạo báo cáo TXT
-				StringBuilder content = new StringBuilder();
-				if (type == ReportType.EMPLOYEE_INFO) {
-					List<EmployeeDailySalaryResponse> employeeSalaries = reportService.getEmployeeDailySalaries(from,
-							to);
-					content.append("Tên nhân viên\tNgày\tLương/ngày\n");
-					for (EmployeeDailySalaryResponse e : employeeSalaries) {
-						content.append(e.getFullName()).append("\t").append(e.getDate()).append("\t")
-								.append(String.format("%.0f đ", e.getDailySalary())).append("\n");
-					}
-				} else {
-					List<ReportItemResponse> reports = reportService.getReport(from, to, type);
-					content.append("Ngày\tThu\tChi\n");
-
-					double totalRevenue = 0;
-					double totalExpense = 0;
-
-					for (ReportItemResponse r : reports) {
-						double revenue = r.getRevenue() != null ? r.getRevenue() : 0;
-						double expense = r.getExpense() != null ? r.getExpense() : 0;
-						totalRevenue += revenue;
-						totalExpense += expense;
-
-						content.append(r.getDate()).append("\t").append(String.format("%.0f đ", revenue)).append("\t")
-								.append(String.format("%.0f đ", expense)).append("\n");
-					}
-
-					// Thêm dòng tổng
-					content.append("Tổng:\t").append(String.format("%.0f đ", totalRevenue)).append("\t")
-							.append(String.format("%.0f đ", totalExpense)).append("\n");
-				}
-
-				data = content.toString().getBytes(StandardCharsets.UTF_8);
-				fileName = "report." + format.toLowerCase();
-			}
-
-			ByteArrayResource resource = new ByteArrayResource(data);
-			return ResponseEntity.ok().header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
-					.contentLength(data.length).contentType(MediaType.APPLICATION_OCTET_STREAM).body(resource);
+	public ResponseEntity<StreamingResponseBody> exportReport(@RequestParam("from") LocalDate from,
+			@RequestParam("to") LocalDate to, @RequestParam("type") ReportType type,
+			@RequestParam(value = "granularity", defaultValue = "DAY") ReportGranularity granularity,
+			@RequestParam("format") ReportFormat format) {
+		String fileName = reportExportService.getFileName(format);
+		StreamingResponseBody body = out -> reportExportService.writeReport(from, to, type, granularity, format,
+				out);
+
+		return ResponseEntity.ok().header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
+				.contentType(MediaType.APPLICATION_OCTET_STREAM).body(body);
+	}
+
+	/**
+	 * Dựng lại bảng tổng hợp thu chi theo ngày từ dữ liệu gốc trong khoảng thời
+	 * gian (dùng cho dữ liệu lịch sử hoặc khi phát hiện sai lệch).
+	 */
+	@PostMapping("/summary/rebuild")
+	public String rebuildSummary(@RequestParam("from") LocalDate from, @RequestParam("to") LocalDate to,
+			RedirectAttributes redirectAttributes) {
+		if (from.isAfter(to)) {
+			redirectAttributes.addFlashAttribute("error", "Ngày kết thúc phải sau hoặc bằng ngày bắt đầu");
+			return "redirect:/report/statistics";
+		}
 
+		try {
+			int days = dailySummaryService.rebuild(from, to);
+			redirectAttributes.addFlashAttribute("success",
+					String.format("Đã dựng lại dữ liệu tổng hợp: %d ngày có phát sinh", days));
 		} catch (Exception e) {
-			byte[] errorData = "Lỗi khi xuất báo cáo.".getBytes(StandardCharsets.UTF_8);
-			ByteArrayResource resource = new ByteArrayResource(errorData);
-			return ResponseEntity.internalServerError()
-					.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=error.txt")
-					.contentLength(errorData.length).contentType(MediaType.TEXT_PLAIN).body(resource);
+			redirectAttributes.addFlashAttribute("error", "Đã xảy ra lỗi khi dựng lại dữ liệu tổng hợp.");
 		}
+
+		return "redirect:/report/statistics";
+	}
+
+	/**
+	 * Kiểm tra bảng tổng hợp theo ngày có khớp với dữ liệu gốc hay không. Trả về
+	 * danh sách các ngày bị lệch (rỗng nếu khớp).
+	 */
+	@GetMapping("/summary/check")
+	@ResponseBody
+	public List<DailySummaryCheckResponse> checkSummary(@RequestParam("from") LocalDate from,
+			@RequestParam("to") LocalDate to) {
+		return dailySummaryService.check(from, to);
+	}
+
+	/**
+	 * Trả về bảng nhiệt 7 x 24 (thứ trong tuần x giờ trong ngày) của số hóa đơn và
+	 * doanh thu đã thanh toán trong khoảng thời gian.
+	 */
+	@GetMapping("/heatmap")
+	@ResponseBody
+	public ResponseEntity<SalesHeatmapResponse> getHeatmap(@RequestParam("from") LocalDate from,
+			@RequestParam("to") LocalDate to) {
+		if (from.isAfter(to)) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(salesHeatmapService.getHeatmap(from, to));
+	}
+
+	/**
+	 * Trả về số lần trúng/trượt của bộ nhớ đệm báo cáo theo ngày.
+	 */
+	@GetMapping("/cache/stats")
+	@ResponseBody
+	public ReportCacheStatsResponse getCacheStats() {
+		return reportCacheService.getStats();
 	}
 
 	/**
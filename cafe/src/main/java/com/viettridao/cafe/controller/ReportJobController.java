@@ -0,0 +1,97 @@
+package com.viettridao.cafe.controller;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import com.viettridao.cafe.common.ReportFormat;
+import com.viettridao.cafe.common.ReportGranularity;
+import com.viettridao.cafe.common.ReportType;
+import com.viettridao.cafe.dto.response.reportstatistics.ReportJobResponse;
+import com.viettridao.cafe.service.ReportJobService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controller xử lý các tác vụ xuất báo cáo chạy nền: gửi yêu cầu, theo dõi tiến
+ * độ và tải file kết quả.
+ */
+@Controller
+@RequestMapping("/report/jobs")
+@RequiredArgsConstructor
+public class ReportJobController {
+
+	private final ReportJobService reportJobService;
+
+	/**
+	 * Hiển thị danh sách các tác vụ xuất báo cáo.
+	 */
+	@GetMapping
+	public String listJobs(Model model) {
+		model.addAttribute("jobs", reportJobService.getJobs());
+		return "report/jobs";
+	}
+
+	/**
+	 * Gửi yêu cầu xuất báo cáo chạy nền.
+	 */
+	@PostMapping
+	public String submitJob(@RequestParam("from") LocalDate from, @RequestParam("to") LocalDate to,
+			@RequestParam("type") ReportType type,
+			@RequestParam(value = "granularity", defaultValue = "DAY") ReportGranularity granularity,
+			@RequestParam("format") ReportFormat format, RedirectAttributes redirectAttributes) {
+		try {
+			ReportJobResponse job = reportJobService.submit(from, to, type, granularity, format);
+			redirectAttributes.addFlashAttribute("success", "Đã đưa báo cáo vào hàng đợi xuất file");
+			redirectAttributes.addFlashAttribute("jobId", job.getId());
+		} catch (RuntimeException e) {
+			redirectAttributes.addFlashAttribute("error", e.getMessage());
+		}
+
+		return "redirect:/report/jobs";
+	}
+
+	/**
+	 * Trả về trạng thái và tiến độ của một tác vụ.
+	 */
+	@GetMapping("/{id}")
+	@ResponseBody
+	public ResponseEntity<ReportJobResponse> getJob(@PathVariable("id") String id) {
+		try {
+			return ResponseEntity.ok(reportJobService.getJob(id));
+		} catch (RuntimeException e) {
+			return ResponseEntity.notFound().build();
+		}
+	}
+
+	/**
+	 * Tải file kết quả của một tác vụ đã hoàn tất.
+	 */
+	@GetMapping("/{id}/download")
+	public ResponseEntity<Resource> download(@PathVariable("id") String id) {
+		try {
+			ReportJobResponse job = reportJobService.getJob(id);
+			Path file = reportJobService.getFile(id);
+
+			return ResponseEntity.ok()
+					.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFileName())
+					.contentType(MediaType.APPLICATION_OCTET_STREAM).body(new FileSystemResource(file));
+		} catch (RuntimeException e) {
+			return ResponseEntity.notFound().build();
+		}
+	}
+}
@@ -1,8 +1,16 @@
 package com.viettridao.cafe.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -13,16 +21,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.viettridao.cafe.dto.request.export.ExportRequest;
 import com.viettridao.cafe.dto.request.imports.ImportRequest;
 import com.viettridao.cafe.dto.request.product.ProductRequest;
+import com.viettridao.cafe.dto.response.imports.BulkImportResponse;
 import com.viettridao.cafe.dto.response.product.ProductResponse;
+import com.viettridao.cafe.dto.response.product.StockDriftResponse;
 import com.viettridao.cafe.service.ExportService;
 import com.viettridao.cafe.service.ImportService;
+import com.viettridao.cafe.service.InventoryCostingService;
+import com.viettridao.cafe.service.LowStockAlertService;
 import com.viettridao.cafe.service.ProductService;
+import com.viettridao.cafe.service.ProductSnapshotService;
+import com.viettridao.cafe.service.StockForecastService;
+import com.viettridao.cafe.service.StockLedgerService;
 import com.viettridao.cafe.service.UnitService;
+import com.viettridao.cafe.service.WarehouseHistoryService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -40,10 +58,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class WarehouseController {
 
+	// Số dòng tối đa của một trang lịch sử nhập/xuất
+	private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
 	private final ProductService productService;
 	private final ImportService importService;
 	private final ExportService exportService;
 	private final UnitService unitService;
+	private final ProductSnapshotService productSnapshotService;
+	private final StockLedgerService stockLedgerService;
+	private final InventoryCostingService inventoryCostingService;
+	private final LowStockAlertService lowStockAlertService;
+	private final StockForecastService stockForecastService;
+	private final WarehouseHistoryService warehouseHistoryService;
 
 	/**
 	 * Hiển thị danh sách sản phẩm có phân trang.
@@ -56,6 +83,25 @@ public class WarehouseController {
 		return "warehouse/list";
 	}
 
+	/**
+	 * Hiển thị danh sách sản phẩm sắp hết hàng (tồn kho không vượt quá ngưỡng đặt
+	 * hàng lại).
+	 */
+	@GetMapping("/alerts")
+	public String showAlerts(Model model) {
+		model.addAttribute("alerts", lowStockAlertService.getAlerts());
+		return "warehouse/alerts";
+	}
+
+	/**
+	 * Hiển thị dự báo ngày hết hàng của các sản phẩm để lập kế hoạch nhập hàng.
+	 */
+	@GetMapping("/forecast")
+	public String showForecast(Model model) {
+		model.addAttribute("forecasts", stockForecastService.getForecasts());
+		return "warehouse/forecast";
+	}
+
 	/**
 	 * Hiển thị form nhập hàng.
 	 */
@@ -91,6 +137,37 @@ public class WarehouseController {
 		}
 	}
 
+	/**
+	 * Hiển thị trang nhập hàng loạt từ file CSV.
+	 */
+	@GetMapping("/import/bulk")
+	public String showBulkImportForm() {
+		return "warehouse/import-bulk";
+	}
+
+	/**
+	 * Xử lý file CSV nhập hàng loạt và hiển thị kết quả kèm các dòng lỗi.
+	 */
+	@PostMapping("/import/bulk")
+	public String handleBulkImport(@RequestParam("file") MultipartFile file, Model model) {
+		if (file.isEmpty()) {
+			model.addAttribute("error", "Vui lòng chọn file CSV.");
+			return "warehouse/import-bulk";
+		}
+
+		try (InputStream in = file.getInputStream()) {
+			BulkImportResponse result = importService.bulkImport(in);
+			model.addAttribute("result", result);
+			if (result.getImportedRows() > 0) {
+				model.addAttribute("success", "Đã nhập " + result.getImportedRows() + "/" + result.getTotalRows()
+						+ " dòng.");
+			}
+		} catch (IllegalArgumentException | IOException e) {
+			model.addAttribute("error", "Nhập hàng thất bại: " + e.getMessage());
+		}
+		return "warehouse/import-bulk";
+	}
+
 	/**
 	 * Hiển thị form xuất hàng.
 	 */
@@ -198,6 +275,16 @@ public class WarehouseController {
 		return "Tồn kho hiện tại: " + stock;
 	}
 
+	/**
+	 * Đối chiếu sổ kho với số lượng trên sản phẩm và với tổng nhập trừ tổng xuất.
+	 * Trả về danh sách sản phẩm bị lệch (rỗng nếu khớp).
+	 */
+	@GetMapping("/stock/reconcile")
+	@ResponseBody
+	public List<StockDriftResponse> reconcileStock() {
+		return stockLedgerService.reconcile();
+	}
+
 	/**
 	 * Xóa mềm sản phẩm theo ID.
 	 */
@@ -212,20 +299,102 @@ public class WarehouseController {
 
 
 	/**
-	 * Hiển thị lịch sử nhập hàng.
+	 * Dựng lại giá nhập mới nhất, ngày nhập xuất và giá trị tồn kho của toàn bộ
+	 * sản phẩm từ lịch sử nhập xuất (dùng khi phát hiện sai lệch).
+	 */
+	@PostMapping("/snapshots/rebuild")
+	public String rebuildSnapshots(RedirectAttributes redirectAttributes) {
+		try {
+			int products = productSnapshotService.rebuildAll();
+			redirectAttributes.addFlashAttribute("success",
+					String.format("Đã tính lại thông tin nhập xuất cho %d sản phẩm", products));
+		} catch (Exception e) {
+			redirectAttributes.addFlashAttribute("error", "Đã xảy ra lỗi khi tính lại thông tin nhập xuất.");
+		}
+		return "redirect:/warehouse";
+	}
+
+	/**
+	 * Tính lại giá vốn bình quân của toàn bộ sản phẩm bằng cách phát lại lịch sử
+	 * nhập xuất.
+	 */
+	@PostMapping("/costs/replay")
+	public String replayCosts(RedirectAttributes redirectAttributes) {
+		try {
+			int products = inventoryCostingService.replayAll();
+			redirectAttributes.addFlashAttribute("success",
+					String.format("Đã tính lại giá vốn cho %d sản phẩm", products));
+		} catch (Exception e) {
+			redirectAttributes.addFlashAttribute("error", "Đã xảy ra lỗi khi tính lại giá vốn.");
+		}
+		return "redirect:/warehouse";
+	}
+
+	/**
+	 * Hiển thị lịch sử nhập hàng có phân trang, lọc theo khoảng ngày và sản phẩm.
 	 */
 	@GetMapping("/history/import")
-	public String viewAllImportHistory(Model model) {
-		model.addAttribute("imports", importService.getAll());
+	public String viewAllImportHistory(
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+			@RequestParam(required = false) Integer productId, @RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "20") int size, Model model) {
+		model.addAttribute("importPage", importService.getHistory(from, to, productId, Math.max(page, 0),
+				Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE)));
+		addHistoryFilters(model, from, to, productId);
 		return "warehouse/import-history";
 	}
 
 	/**
-	 * Hiển thị lịch sử xuất hàng.
+	 * Hiển thị lịch sử xuất hàng có phân trang, lọc theo khoảng ngày và sản phẩm.
 	 */
 	@GetMapping("/history/export")
-	public String viewAllExportHistory(Model model) {
-		model.addAttribute("exports", exportService.getAll());
+	public String viewAllExportHistory(
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+			@RequestParam(required = false) Integer productId, @RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "20") int size, Model model) {
+		model.addAttribute("exportPage", exportService.getHistory(from, to, productId, Math.max(page, 0),
+				Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE)));
+		addHistoryFilters(model, from, to, productId);
 		return "warehouse/export-history";
 	}
+
+	/**
+	 * Tải toàn bộ lịch sử nhập hàng (theo bộ lọc) dưới dạng CSV. Nội dung được ghi
+	 * thẳng ra luồng phản hồi trong khi đọc dữ liệu.
+	 */
+	@GetMapping("/history/import/csv")
+	public ResponseEntity<StreamingResponseBody> downloadImportHistory(
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+			@RequestParam(required = false) Integer productId) {
+		StreamingResponseBody body = out -> warehouseHistoryService.writeImportCsv(from, to, productId, out);
+		return csv("lich-su-nhap.csv", body);
+	}
+
+	/**
+	 * Tải toàn bộ lịch sử xuất hàng (theo bộ lọc) dưới dạng CSV. Nội dung được ghi
+	 * thẳng ra luồng phản hồi trong khi đọc dữ liệu.
+	 */
+	@GetMapping("/history/export/csv")
+	public ResponseEntity<StreamingResponseBody> downloadExportHistory(
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+			@RequestParam(required = false) Integer productId) {
+		StreamingResponseBody body = out -> warehouseHistoryService.writeExportCsv(from, to, productId, out);
+		return csv("lich-su-xuat.csv", body);
+	}
+
+	private void addHistoryFilters(Model model, LocalDate from, LocalDate to, Integer productId) {
+		model.addAttribute("from", from);
+		model.addAttribute("to", to);
+		model.addAttribute("productId", productId);
+		model.addAttribute("products", productService.findAll());
+	}
+
+	private ResponseEntity<StreamingResponseBody> csv(String fileName, StreamingResponseBody body) {
+		return ResponseEntity.ok().header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
+				.contentType(new MediaType("text", "csv", StandardCharsets.UTF_8)).body(body);
+	}
 }
@@ -22,4 +22,8 @@ public class BudgetFilterRequest {
 	private int page = 0;
 
 	private int size = 10;
+
+	// Con trỏ phân trang (chuỗi mã hóa, do máy chủ tạo ra). Khi có giá trị (kể cả
+	// rỗng) thì danh sách được phân trang theo con trỏ thay vì theo số trang.
+	private String cursor;
 }
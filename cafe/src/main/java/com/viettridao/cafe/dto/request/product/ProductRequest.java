@@ -39,4 +39,7 @@ public class ProductRequest {
 	
 	private LocalDate lastImportDate;
 
+	@Min(value = 0, message = "Ngưỡng cảnh báo không được âm")
+	private Integer reorderThreshold;
+
 }
@@ -0,0 +1,28 @@
+package com.viettridao.cafe.dto.request.product;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Một biến động tồn kho cần ghi sổ trong một lô (nhập hàng loạt, tiêu hao theo
+ * công thức).
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockMovementRequest {
+
+	private Integer productId;
+
+	// Số lượng thay đổi (âm khi giảm)
+	private Integer quantity;
+
+	private Integer referenceId;
+
+	private LocalDate movementDate;
+}
@@ -4,6 +4,8 @@ import java.time.LocalDate;
 
 import org.springframework.format.annotation.DateTimeFormat;
 
+import com.viettridao.cafe.common.ReportGranularity;
+
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import lombok.Getter;
@@ -25,6 +27,13 @@ public class ReportFilterRequest {
 
 	private String category;
 
+	// Mức gộp thời gian của báo cáo thu chi
+	private ReportGranularity granularity = ReportGranularity.DAY;
+
+	private int page = 0;
+
+	private int size = 50;
+
 	public boolean isValidDateRange() {
 		return fromDate != null && toDate != null && !fromDate.isAfter(toDate);
 	}
@@ -0,0 +1,25 @@
+package com.viettridao.cafe.dto.response.expenses;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Một trang danh sách thu chi theo con trỏ (keyset), kèm con trỏ của trang kế
+ * tiếp và trang trước (null nếu không có).
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetCursorPageResponse {
+
+	private List<BudgetViewResponse> content;
+
+	private String nextCursor;
+
+	private String prevCursor;
+}
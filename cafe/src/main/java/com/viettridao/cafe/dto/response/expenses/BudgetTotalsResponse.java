@@ -0,0 +1,21 @@
+package com.viettridao.cafe.dto.response.expenses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Tổng thu và tổng chi của toàn bộ khoảng thời gian lọc (không chỉ của trang
+ * đang xem).
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetTotalsResponse {
+
+	private Double totalIncome;
+
+	private Double totalExpense;
+}
@@ -0,0 +1,27 @@
+package com.viettridao.cafe.dto.response.expenses;
+
+import java.time.LocalDate;
+
+import com.viettridao.cafe.common.LedgerEntryType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Tổng tiền của một loại bút toán trong một ngày, kết quả của truy vấn GROUP BY
+ * (ngày, loại) trên sổ thu chi.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerDailyAmountResponse {
+
+	private LocalDate date;
+
+	private LedgerEntryType type;
+
+	private Double amount;
+}
@@ -2,11 +2,15 @@ package com.viettridao.cafe.dto.response.exports;
 
 import java.time.LocalDate;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class ExportResponse {
 
 	private Integer id;
@@ -0,0 +1,21 @@
+package com.viettridao.cafe.dto.response.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Lỗi của một dòng trong file nhập hàng loạt.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportErrorResponse {
+
+	// Số dòng trong file (dòng tiêu đề là dòng 1)
+	private int lineNumber;
+
+	private String message;
+}
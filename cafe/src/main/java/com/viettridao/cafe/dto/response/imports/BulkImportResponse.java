@@ -0,0 +1,27 @@
+package com.viettridao.cafe.dto.response.imports;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Kết quả nhập hàng loạt từ file CSV: số dòng đã đọc, số đơn nhập đã tạo, số sản
+ * phẩm mới và danh sách lỗi theo dòng.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportResponse {
+
+	private int totalRows;
+
+	private int importedRows;
+
+	private int createdProducts;
+
+	private List<BulkImportErrorResponse> errors;
+}
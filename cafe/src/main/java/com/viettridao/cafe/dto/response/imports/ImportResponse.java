@@ -2,11 +2,15 @@ package com.viettridao.cafe.dto.response.imports;
 
 import java.time.LocalDate;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class ImportResponse {
 
 	private Integer id;
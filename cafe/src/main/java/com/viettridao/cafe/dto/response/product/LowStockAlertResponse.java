@@ -0,0 +1,26 @@
+package com.viettridao.cafe.dto.response.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Một sản phẩm có tồn kho không vượt quá ngưỡng đặt hàng lại.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlertResponse {
+
+	private Integer productId;
+
+	private String productName;
+
+	private String unitName;
+
+	private Integer quantity;
+
+	private Integer reorderThreshold;
+}
@@ -0,0 +1,27 @@
+package com.viettridao.cafe.dto.response.product;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Thông tin nhập xuất gần nhất của một sản phẩm: giá và ngày của lần nhập mới
+ * nhất, ngày của lần xuất cuối cùng.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductStockMetaResponse {
+
+	private Integer productId;
+
+	private Double latestPrice;
+
+	private LocalDate lastImportDate;
+
+	private LocalDate lastExportDate;
+}
@@ -0,0 +1,37 @@
+package com.viettridao.cafe.dto.response.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Một sản phẩm có số dư sổ kho lệch với số lượng trên sản phẩm hoặc với tồn
+ * kho tính từ lịch sử nhập, xuất và điều chỉnh.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockDriftResponse {
+
+	private Integer productId;
+
+	private String productName;
+
+	// Số dư của dòng sổ kho mới nhất (null nếu chưa có sổ kho)
+	private Integer ledgerBalance;
+
+	// Số lượng đang lưu trên sản phẩm
+	private Integer productQuantity;
+
+	private Integer importedQuantity;
+
+	private Integer exportedQuantity;
+
+	// Tổng số dư đầu kỳ và các lần điều chỉnh thủ công
+	private Integer adjustedQuantity;
+
+	// Tồn kho tính từ lịch sử: tổng nhập - tổng xuất + đầu kỳ và điều chỉnh
+	private Integer historyStock;
+}
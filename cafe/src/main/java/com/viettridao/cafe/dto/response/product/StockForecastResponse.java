@@ -0,0 +1,34 @@
+package com.viettridao.cafe.dto.response.product;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Dự báo hết hàng của một sản phẩm: lượng dùng trung bình mỗi ngày (trung bình
+ * trượt hàm mũ) và số ngày còn lại với tồn kho hiện tại.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockForecastResponse {
+
+	private Integer productId;
+
+	private String productName;
+
+	private String unitName;
+
+	private Integer quantity;
+
+	private Double averageDailyUsage;
+
+	// null nếu chưa có lượng dùng
+	private Double daysUntilStockout;
+
+	private LocalDate stockoutDate;
+}
@@ -0,0 +1,23 @@
+package com.viettridao.cafe.dto.response.reportstatistics;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Tổng tiền của một nguồn dữ liệu (hóa đơn, nhập, xuất, chi phí) trong một
+ * ngày, dùng làm kết quả của các truy vấn GROUP BY theo ngày.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyAmountResponse {
+
+	private LocalDate date;
+
+	private Double amount;
+}
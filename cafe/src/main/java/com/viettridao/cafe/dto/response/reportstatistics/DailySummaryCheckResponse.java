@@ -0,0 +1,37 @@
+package com.viettridao.cafe.dto.response.reportstatistics;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Kết quả so sánh một ngày giữa bảng tổng hợp daily_summary và dữ liệu gốc
+ * (hóa đơn, nhập, xuất, chi phí). Chỉ các ngày bị lệch mới được trả về.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySummaryCheckResponse {
+
+	private LocalDate date;
+
+	private Double summaryRevenue;
+
+	private Double sourceRevenue;
+
+	private Double summaryImportCost;
+
+	private Double sourceImportCost;
+
+	private Double summaryExportCost;
+
+	private Double sourceExportCost;
+
+	private Double summaryOtherExpense;
+
+	private Double sourceOtherExpense;
+}
@@ -0,0 +1,27 @@
+package com.viettridao.cafe.dto.response.reportstatistics;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Số hóa đơn và doanh thu trong một giờ của một ngày, dùng làm kết quả của truy
+ * vấn GROUP BY theo ngày và giờ.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlySalesResponse {
+
+	private LocalDate date;
+
+	private Integer hour;
+
+	private Long invoiceCount;
+
+	private Double revenue;
+}
@@ -0,0 +1,29 @@
+package com.viettridao.cafe.dto.response.reportstatistics;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Số lượng bán và doanh thu của một món trong một ngày, dùng làm kết quả của
+ * truy vấn GROUP BY theo ngày và món.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemDailySalesResponse {
+
+	private LocalDate date;
+
+	private Integer menuItemId;
+
+	private String itemName;
+
+	private Long quantity;
+
+	private Double revenue;
+}
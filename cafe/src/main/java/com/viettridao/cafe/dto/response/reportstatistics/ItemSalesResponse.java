@@ -0,0 +1,24 @@
+package com.viettridao.cafe.dto.response.reportstatistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Tổng số lượng bán và doanh thu của một món trong khoảng thời gian.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSalesResponse {
+
+	private Integer menuItemId;
+
+	private String itemName;
+
+	private Long quantity;
+
+	private Double revenue;
+}
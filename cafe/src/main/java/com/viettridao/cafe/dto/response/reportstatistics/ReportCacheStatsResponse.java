@@ -0,0 +1,26 @@
+package com.viettridao.cafe.dto.response.reportstatistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Thống kê hoạt động của bộ nhớ đệm báo cáo theo ngày.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportCacheStatsResponse {
+
+	private long hits;
+
+	private long misses;
+
+	// Số ngày (theo từng loại báo cáo) đang được lưu
+	private int size;
+
+	// Tỉ lệ trúng bộ nhớ đệm (0 - 1)
+	private double hitRatio;
+}
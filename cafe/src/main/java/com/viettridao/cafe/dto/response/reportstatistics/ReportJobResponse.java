@@ -0,0 +1,47 @@
+package com.viettridao.cafe.dto.response.reportstatistics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.viettridao.cafe.common.ReportFormat;
+import com.viettridao.cafe.common.ReportGranularity;
+import com.viettridao.cafe.common.ReportJobStatus;
+import com.viettridao.cafe.common.ReportType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Thông tin trạng thái của một tác vụ xuất báo cáo chạy nền.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+
+	private String id;
+
+	private LocalDate fromDate;
+
+	private LocalDate toDate;
+
+	private ReportType type;
+
+	private ReportGranularity granularity;
+
+	private ReportFormat format;
+
+	private ReportJobStatus status;
+
+	// Tiến độ xử lý theo phần trăm (0 - 100)
+	private Integer progress;
+
+	private String fileName;
+
+	private String message;
+
+	private LocalDateTime createdAt;
+}
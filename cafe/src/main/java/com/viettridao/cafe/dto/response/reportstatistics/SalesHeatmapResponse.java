@@ -0,0 +1,29 @@
+package com.viettridao.cafe.dto.response.reportstatistics;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Bảng nhiệt doanh thu theo thứ trong tuần và giờ trong ngày. Hàng thứ i ứng
+ * với thứ Hai + i, cột thứ j ứng với giờ j.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesHeatmapResponse {
+
+	private LocalDate fromDate;
+
+	private LocalDate toDate;
+
+	// Số hóa đơn đã thanh toán [7][24]
+	private long[][] invoiceCounts;
+
+	// Doanh thu đã thanh toán (làm tròn đến đồng) [7][24]
+	private long[][] revenue;
+}
@@ -2,10 +2,14 @@ package com.viettridao.cafe.exception;
 
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
 import jakarta.validation.ConstraintViolationException;
@@ -71,6 +75,27 @@ public class GlobalExceptionHandler {
 		return "error/validation";
 	}
 
+	/**
+	 * Xử lý tham số yêu cầu bị thiếu hoặc không đúng kiểu (ví dụ định dạng báo cáo
+	 * không nằm trong danh sách cho phép). Trả về mã 400 cùng trang lỗi
+	 * validation.
+	 * 
+	 * @param ex    ngoại lệ MethodArgumentTypeMismatchException hoặc
+	 *              MissingServletRequestParameterException
+	 * @param model đối tượng Model để truyền dữ liệu sang view
+	 * @return tên view hiển thị trang lỗi validation
+	 */
+	@ExceptionHandler({ MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class })
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public String handleBadRequestParameter(Exception ex, Model model) {
+		String name = ex instanceof MethodArgumentTypeMismatchException mismatch ? mismatch.getName()
+				: ((MissingServletRequestParameterException) ex).getParameterName();
+
+		model.addAttribute("error", "Tham số không hợp lệ");
+		model.addAttribute("message", name + ": giá trị bị thiếu hoặc không được hỗ trợ");
+		return "error/validation";
+	}
+
 	/**
 	 * Xử lý các lỗi hệ thống chung không được xử lý bởi các handler trên. Bắt tất
 	 * cả ngoại lệ Exception và trả về trang lỗi 500.
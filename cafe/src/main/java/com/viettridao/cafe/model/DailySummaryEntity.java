@@ -0,0 +1,37 @@
+package com.viettridao.cafe.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "daily_summary") // tonghopngay
+public class DailySummaryEntity {
+	@Id
+	@Column(name = "summary_date")
+	private LocalDate summaryDate;
+	// Ngày tổng hợp, mỗi ngày chỉ có một dòng.
+
+	@Column(name = "revenue")
+	private Double revenue;
+	// Tổng doanh thu từ các hóa đơn đã thanh toán trong ngày.
+
+	@Column(name = "import_cost")
+	private Double importCost;
+	// Tổng tiền nhập hàng trong ngày.
+
+	@Column(name = "export_cost")
+	private Double exportCost;
+	// Tổng tiền xuất hàng trong ngày.
+
+	@Column(name = "other_expense")
+	private Double otherExpense;
+	// Tổng các khoản chi khác trong ngày.
+}
@@ -0,0 +1,25 @@
+package com.viettridao.cafe.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "data_migrations") // dulieuchuyendoi
+public class DataMigrationEntity {
+	@Id
+	@Column(name = "name", length = 100)
+	private String name;
+	// Tên bước chuyển đổi dữ liệu, mỗi bước chỉ được chạy một lần.
+
+	@Column(name = "applied_at", nullable = false)
+	private LocalDateTime appliedAt;
+	// Thời điểm bước chuyển đổi được chạy.
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -14,7 +15,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "equipment") // thietbi
+@Table(name = "equipment", indexes = @Index(name = "idx_equipment_purchase_date", columnList = "purchase_date")) // thietbi
 public class EquipmentEntity {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
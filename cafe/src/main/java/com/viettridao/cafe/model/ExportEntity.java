@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,7 +18,9 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "exports") // donxuat
+@Table(name = "exports", indexes = {
+		@Index(name = "idx_exports_product_export_date", columnList = "product_id, export_date"),
+		@Index(name = "idx_exports_export_date", columnList = "export_date") }) // donxuat
 public class ExportEntity {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,7 +18,9 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "imports") // donnhap
+@Table(name = "imports", indexes = {
+		@Index(name = "idx_imports_product_import_date", columnList = "product_id, import_date"),
+		@Index(name = "idx_imports_import_date", columnList = "import_date") }) // donnhap
 public class ImportEntity {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
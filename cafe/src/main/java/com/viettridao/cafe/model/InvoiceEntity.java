@@ -13,6 +13,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -23,7 +24,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "invoices") // hoadon
+@Table(name = "invoices", indexes = @Index(name = "idx_invoices_status_created_at", columnList = "status, created_at")) // hoadon
 public class InvoiceEntity {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
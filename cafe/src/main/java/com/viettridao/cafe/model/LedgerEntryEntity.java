@@ -0,0 +1,53 @@
+package com.viettridao.cafe.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.viettridao.cafe.common.LedgerEntryType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "ledger_entries", indexes = {
+		@Index(name = "idx_ledger_entries_date_type", columnList = "entry_date, type"),
+		@Index(name = "idx_ledger_entries_type_reference", columnList = "type, reference_id") }) // sothuchi
+public class LedgerEntryEntity {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "ledger_entry_id")
+	private Integer id;
+	// Khóa chính, tự động tăng. Sổ chỉ được thêm dòng, không sửa và không xóa.
+
+	@Column(name = "entry_date", nullable = false, updatable = false)
+	private LocalDate entryDate;
+	// Ngày phát sinh khoản thu chi.
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "type", nullable = false, updatable = false)
+	private LedgerEntryType type;
+	// Loại bút toán: INVOICE (thu), EXPENSE, EQUIPMENT (chi).
+
+	@Column(name = "amount", nullable = false, updatable = false)
+	private Double amount;
+	// Số tiền. Bút toán điều chỉnh (sửa, xóa thiết bị) có thể mang số âm.
+
+	@Column(name = "reference_id", updatable = false)
+	private Integer referenceId;
+	// Id của bản ghi gốc (hóa đơn, khoản chi hoặc thiết bị).
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+	// Thời điểm ghi bút toán.
+}
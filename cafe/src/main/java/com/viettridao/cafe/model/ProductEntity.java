@@ -1,7 +1,10 @@
 package com.viettridao.cafe.model;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -18,6 +21,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
+@DynamicUpdate // chỉ ghi các cột thay đổi, không ghi đè quantity được cập nhật nguyên tử
 @Table(name = "products") // hanghoa
 public class ProductEntity {
 	@Id
@@ -31,6 +35,33 @@ public class ProductEntity {
 	@Column(name = "quantity")
 	private Integer quantity;
 
+	@Column(name = "latest_price")
+	private Double latestPrice;
+	// Giá của lần nhập mới nhất (ảnh chụp, cập nhật khi nhập hàng).
+
+	@Column(name = "last_import_date")
+	private LocalDate lastImportDate;
+	// Ngày của lần nhập mới nhất.
+
+	@Column(name = "last_export_date")
+	private LocalDate lastExportDate;
+	// Ngày của lần xuất cuối cùng.
+
+	@Column(name = "total_amount")
+	private Double totalAmount;
+	// Giá trị tồn kho: số lượng hiện tại x giá nhập mới nhất.
+
+	@Column(name = "average_cost")
+	private Double averageCost;
+	// Giá vốn bình quân gia quyền của hàng đang tồn, cập nhật sau mỗi lần nhập.
+
+	@Column(name = "consumption_remainder")
+	private Double consumptionRemainder;
+	// Phần định lượng lẻ (nhỏ hơn 1) đã tiêu hao theo công thức nhưng chưa trừ khỏi tồn kho.
+
+	@Column(name = "reorder_threshold")
+	private Integer reorderThreshold;
+	// Ngưỡng đặt hàng lại: tồn kho không vượt quá ngưỡng này thì cảnh báo sắp hết.
 
 	@Column(name = "is_deleted")
 	private Boolean isDeleted;
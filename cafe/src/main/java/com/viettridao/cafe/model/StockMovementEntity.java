@@ -0,0 +1,66 @@
+package com.viettridao.cafe.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.viettridao.cafe.common.StockMovementType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "stock_movements", indexes = {
+		@Index(name = "idx_stock_movements_product_id", columnList = "product_id, stock_movement_id"),
+		@Index(name = "idx_stock_movements_date_type", columnList = "movement_date, type"),
+		@Index(name = "idx_stock_movements_type_reference", columnList = "type, reference_id") }) // sokho
+public class StockMovementEntity {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "stock_movement_id")
+	private Integer id;
+	// Khóa chính, tự động tăng. Dòng có id lớn nhất của sản phẩm mang số dư hiện tại.
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "product_id", nullable = false, updatable = false)
+	private ProductEntity product;
+	// Sản phẩm có biến động tồn kho.
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "type", nullable = false, updatable = false)
+	private StockMovementType type;
+	// Loại biến động: OPENING, IMPORT, EXPORT, CONSUMPTION, ADJUSTMENT.
+
+	@Column(name = "quantity", nullable = false, updatable = false)
+	private Integer quantity;
+	// Số lượng thay đổi (dương khi tăng, âm khi giảm).
+
+	@Column(name = "balance", nullable = false, updatable = false)
+	private Integer balance;
+	// Số dư tồn kho sau biến động này.
+
+	@Column(name = "reference_id", updatable = false)
+	private Integer referenceId;
+	// Id của chứng từ gốc (đơn nhập, đơn xuất...), null với số dư đầu kỳ.
+
+	@Column(name = "movement_date", nullable = false, updatable = false)
+	private LocalDate movementDate;
+	// Ngày phát sinh biến động.
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+	// Thời điểm ghi sổ.
+}
@@ -0,0 +1,63 @@
+package com.viettridao.cafe.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.viettridao.cafe.model.DailySummaryEntity;
+
+/**
+ * Repository thao tác với bảng tổng hợp thu chi theo ngày (daily_summary).
+ */
+@Repository
+public interface DailySummaryRepository extends JpaRepository<DailySummaryEntity, LocalDate> {
+
+	/**
+	 * Lấy các dòng tổng hợp trong khoảng thời gian, sắp xếp tăng dần theo ngày.
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 * @return danh sách dòng tổng hợp theo ngày
+	 */
+	List<DailySummaryEntity> findBySummaryDateBetweenOrderBySummaryDateAsc(LocalDate from, LocalDate to);
+
+	/**
+	 * Cộng dồn các khoản thu chi vào dòng tổng hợp của một ngày. Nếu ngày chưa có
+	 * dòng tổng hợp thì tạo mới, nếu đã có thì cộng thêm vào giá trị hiện tại ngay
+	 * trong câu lệnh để tránh mất dữ liệu khi nhiều giao dịch ghi cùng lúc.
+	 *
+	 * @param date         ngày tổng hợp
+	 * @param revenue      doanh thu cần cộng thêm
+	 * @param importCost   tiền nhập hàng cần cộng thêm
+	 * @param exportCost   tiền xuất hàng cần cộng thêm
+	 * @param otherExpense chi phí khác cần cộng thêm
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO daily_summary (summary_date, revenue, import_cost, export_cost, other_expense)
+			VALUES (:date, :revenue, :importCost, :exportCost, :otherExpense)
+			ON DUPLICATE KEY UPDATE
+			    revenue = revenue + VALUES(revenue),
+			    import_cost = import_cost + VALUES(import_cost),
+			    export_cost = export_cost + VALUES(export_cost),
+			    other_expense = other_expense + VALUES(other_expense)
+			""", nativeQuery = true)
+	void addAmounts(@Param("date") LocalDate date, @Param("revenue") double revenue,
+			@Param("importCost") double importCost, @Param("exportCost") double exportCost,
+			@Param("otherExpense") double otherExpense);
+
+	/**
+	 * Xóa các dòng tổng hợp trong khoảng thời gian (dùng khi dựng lại dữ liệu).
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 */
+	@Modifying
+	@Query("DELETE FROM DailySummaryEntity d WHERE d.summaryDate BETWEEN :from AND :to")
+	void deleteBySummaryDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,28 @@
+package com.viettridao.cafe.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.viettridao.cafe.model.DataMigrationEntity;
+
+/**
+ * Repository thao tác với bảng đánh dấu các bước chuyển đổi dữ liệu đã chạy
+ * (data_migrations).
+ */
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigrationEntity, String> {
+
+	/**
+	 * Đánh dấu một bước chuyển đổi là đã chạy. Nếu bước đã được đánh dấu (kể cả
+	 * bởi một tiến trình khác đang chạy song song) thì không làm gì.
+	 *
+	 * @param name tên bước chuyển đổi
+	 * @return 1 nếu vừa đánh dấu, 0 nếu bước đã được đánh dấu trước đó
+	 */
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO data_migrations (name, applied_at) VALUES (:name, NOW())", nativeQuery = true)
+	int markApplied(@Param("name") String name);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.viettridao.cafe.dto.response.reportstatistics.DailyAmountResponse;
 import com.viettridao.cafe.model.ExpenseEntity;
 
 /**
@@ -47,4 +48,16 @@ public interface ExpenseRepository extends JpaRepository<ExpenseEntity, Integer>
 	 */
 	@Query("SELECT SUM(e.amount) FROM ExpenseEntity e WHERE e.expenseDate BETWEEN :from AND :to AND e.isDeleted = false")
 	Double sumAmountBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	/**
+	 * Tính tổng số tiền đã chi theo từng ngày trong khoảng thời gian cụ thể. Bỏ
+	 * qua các bản ghi đã bị xóa mềm.
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 * @return danh sách tổng chi phí theo ngày
+	 */
+	@Query("SELECT new com.viettridao.cafe.dto.response.reportstatistics.DailyAmountResponse(e.expenseDate, SUM(e.amount)) "
+			+ "FROM ExpenseEntity e WHERE e.expenseDate BETWEEN :from AND :to AND e.isDeleted = false GROUP BY e.expenseDate")
+	List<DailyAmountResponse> sumAmountGroupByDate(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
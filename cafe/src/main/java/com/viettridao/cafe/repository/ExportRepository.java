@@ -11,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.viettridao.cafe.dto.response.exports.ExportResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.DailyAmountResponse;
 import com.viettridao.cafe.model.ExportEntity;
 
 /**
@@ -41,4 +43,24 @@ public interface ExportRepository extends JpaRepository<ExportEntity, Integer> {
     Double sumTotalExportAmountBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
     Optional<ExportEntity> findTopByProductIdOrderByExportDateDesc(Integer productId);
+
+    // Tổng tiền xuất theo từng ngày trong khoảng thời gian, một truy vấn cho cả khoảng
+    @Query("SELECT new com.viettridao.cafe.dto.response.reportstatistics.DailyAmountResponse(e.exportDate, SUM(e.totalExportAmount)) "
+            + "FROM ExportEntity e WHERE e.exportDate BETWEEN :from AND :to AND e.isDeleted = false GROUP BY e.exportDate")
+    List<DailyAmountResponse> sumTotalExportAmountGroupByDate(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Lịch sử xuất có phân trang và lọc theo khoảng ngày, sản phẩm (tham số null
+    // là không lọc). Chọn thẳng các cột cần hiển thị, sản phẩm và nhân viên được
+    // join trong cùng truy vấn.
+    @Query(value = "SELECT new com.viettridao.cafe.dto.response.exports.ExportResponse(x.id, p.id, p.productName, "
+            + "x.quantity, x.totalExportAmount, x.exportDate, COALESCE(e.fullName, 'Không xác định')) "
+            + "FROM ExportEntity x JOIN x.product p LEFT JOIN x.employee e "
+            + "WHERE x.isDeleted = false AND (:from IS NULL OR x.exportDate >= :from) "
+            + "AND (:to IS NULL OR x.exportDate <= :to) AND (:productId IS NULL OR p.id = :productId) "
+            + "ORDER BY x.exportDate DESC, x.id DESC",
+            countQuery = "SELECT COUNT(x) FROM ExportEntity x WHERE x.isDeleted = false "
+                    + "AND (:from IS NULL OR x.exportDate >= :from) AND (:to IS NULL OR x.exportDate <= :to) "
+                    + "AND (:productId IS NULL OR x.product.id = :productId)")
+    Page<ExportResponse> findHistory(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("productId") Integer productId, Pageable pageable);
 }
@@ -11,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.viettridao.cafe.dto.response.imports.ImportResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.DailyAmountResponse;
 import com.viettridao.cafe.model.ImportEntity;
 
 /**
@@ -45,4 +47,24 @@ public interface ImportRepository extends JpaRepository<ImportEntity, Integer> {
 
     @Query("SELECT SUM(i.totalAmount) FROM ImportEntity i WHERE i.importDate BETWEEN :from AND :to AND i.isDeleted = false")
     Double sumTotalAmountBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Tổng tiền nhập theo từng ngày trong khoảng thời gian, một truy vấn cho cả khoảng
+    @Query("SELECT new com.viettridao.cafe.dto.response.reportstatistics.DailyAmountResponse(i.importDate, SUM(i.totalAmount)) "
+            + "FROM ImportEntity i WHERE i.importDate BETWEEN :from AND :to AND i.isDeleted = false GROUP BY i.importDate")
+    List<DailyAmountResponse> sumTotalAmountGroupByDate(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Lịch sử nhập có phân trang và lọc theo khoảng ngày, sản phẩm (tham số null
+    // là không lọc). Chọn thẳng các cột cần hiển thị, sản phẩm và nhân viên được
+    // join trong cùng truy vấn.
+    @Query(value = "SELECT new com.viettridao.cafe.dto.response.imports.ImportResponse(i.id, p.id, p.productName, "
+            + "i.quantity, i.totalAmount, i.importDate, COALESCE(e.fullName, 'Không xác định'), i.price) "
+            + "FROM ImportEntity i JOIN i.product p LEFT JOIN i.employee e "
+            + "WHERE i.isDeleted = false AND (:from IS NULL OR i.importDate >= :from) "
+            + "AND (:to IS NULL OR i.importDate <= :to) AND (:productId IS NULL OR p.id = :productId) "
+            + "ORDER BY i.importDate DESC, i.id DESC",
+            countQuery = "SELECT COUNT(i) FROM ImportEntity i WHERE i.isDeleted = false "
+                    + "AND (:from IS NULL OR i.importDate >= :from) AND (:to IS NULL OR i.importDate <= :to) "
+                    + "AND (:productId IS NULL OR i.product.id = :productId)")
+    Page<ImportResponse> findHistory(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("productId") Integer productId, Pageable pageable);
 }
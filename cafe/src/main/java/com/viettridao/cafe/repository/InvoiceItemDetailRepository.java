@@ -1,11 +1,15 @@
 package com.viettridao.cafe.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.viettridao.cafe.dto.response.reportstatistics.ItemDailySalesResponse;
 import com.viettridao.cafe.model.InvoiceDetailEntity;
 import com.viettridao.cafe.model.InvoiceKey;
 
@@ -40,4 +44,21 @@ public interface InvoiceItemDetailRepository extends JpaRepository<InvoiceDetail
 	 * @return danh sách chi tiết hóa đơn
 	 */
 	List<InvoiceDetailEntity> findByInvoice_Id(Integer invoiceId);
+
+	/**
+	 * Tính số lượng bán và doanh thu theo từng ngày và từng món trong khoảng thời
+	 * gian [from, to), chỉ tính hóa đơn đã thanh toán và chưa bị xóa. Doanh thu
+	 * tính theo giá tại thời điểm bán.
+	 *
+	 * @param from thời điểm bắt đầu (bao gồm)
+	 * @param to   thời điểm kết thúc (không bao gồm)
+	 * @return danh sách số lượng và doanh thu theo ngày và món
+	 */
+	@Query("SELECT new com.viettridao.cafe.dto.response.reportstatistics.ItemDailySalesResponse("
+			+ "CAST(i.createdAt AS LocalDate), m.id, m.itemName, SUM(d.quantity), SUM(d.quantity * d.price)) "
+			+ "FROM InvoiceDetailEntity d JOIN d.invoice i JOIN d.menuItem m "
+			+ "WHERE i.createdAt >= :from AND i.createdAt < :to AND i.status = 'PAID' AND i.isDeleted = false "
+			+ "AND d.isDeleted = false GROUP BY CAST(i.createdAt AS LocalDate), m.id, m.itemName")
+	List<ItemDailySalesResponse> sumSalesGroupByDateAndItem(@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to);
 }
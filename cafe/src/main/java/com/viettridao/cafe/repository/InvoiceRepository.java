@@ -11,6 +11,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.viettridao.cafe.common.InvoiceStatus;
+import com.viettridao.cafe.dto.response.reportstatistics.DailyAmountResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.HourlySalesResponse;
 import com.viettridao.cafe.model.InvoiceEntity;
 
 /**
@@ -58,6 +60,36 @@ public interface InvoiceRepository extends JpaRepository<InvoiceEntity, Integer>
 	@Query("SELECT SUM(i.totalAmount) FROM InvoiceEntity i WHERE i.createdAt BETWEEN :from AND :to AND i.status = 'PAID' AND i.isDeleted = false")
 	Double sumTotalAmountBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
+	/**
+	 * Tính doanh thu theo từng ngày trong khoảng thời gian [from, to), chỉ tính
+	 * hóa đơn đã thanh toán. Điều kiện lọc so sánh trực tiếp trên cột createdAt
+	 * để có thể dùng chỉ mục, mỗi ngày có dữ liệu trả về một dòng.
+	 *
+	 * @param from thời điểm bắt đầu (bao gồm)
+	 * @param to   thời điểm kết thúc (không bao gồm)
+	 * @return danh sách tổng doanh thu theo ngày
+	 */
+	@Query("SELECT new com.viettridao.cafe.dto.response.reportstatistics.DailyAmountResponse(CAST(i.createdAt AS LocalDate), SUM(i.totalAmount)) "
+			+ "FROM InvoiceEntity i WHERE i.createdAt >= :from AND i.createdAt < :to AND i.status = 'PAID' AND i.isDeleted = false "
+			+ "GROUP BY CAST(i.createdAt AS LocalDate)")
+	List<DailyAmountResponse> sumTotalAmountGroupByDate(@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to);
+
+	/**
+	 * Đếm số hóa đơn và tính doanh thu theo từng ngày và từng giờ trong khoảng
+	 * thời gian [from, to), chỉ tính hóa đơn đã thanh toán.
+	 *
+	 * @param from thời điểm bắt đầu (bao gồm)
+	 * @param to   thời điểm kết thúc (không bao gồm)
+	 * @return danh sách số hóa đơn và doanh thu theo ngày và giờ
+	 */
+	@Query("SELECT new com.viettridao.cafe.dto.response.reportstatistics.HourlySalesResponse("
+			+ "CAST(i.createdAt AS LocalDate), EXTRACT(HOUR FROM i.createdAt), COUNT(i), SUM(i.totalAmount)) "
+			+ "FROM InvoiceEntity i WHERE i.createdAt >= :from AND i.createdAt < :to AND i.status = 'PAID' AND i.isDeleted = false "
+			+ "GROUP BY CAST(i.createdAt AS LocalDate), EXTRACT(HOUR FROM i.createdAt)")
+	List<HourlySalesResponse> sumTotalAmountGroupByDateAndHour(@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to);
+
 	/**
 	 * Lấy hóa đơn mới nhất (dù trạng thái nào) theo bàn nếu chưa bị xóa.
 	 *
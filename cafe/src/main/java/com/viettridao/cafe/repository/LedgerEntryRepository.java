@@ -0,0 +1,140 @@
+package com.viettridao.cafe.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.viettridao.cafe.common.LedgerEntryType;
+import com.viettridao.cafe.dto.response.expenses.LedgerDailyAmountResponse;
+import com.viettridao.cafe.model.LedgerEntryEntity;
+
+/**
+ * Repository thao tác với sổ thu chi (ledger_entries). Mọi truy vấn đều lọc
+ * theo ngày nên được phục vụ bằng chỉ mục (entry_date, type).
+ */
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntryEntity, Integer> {
+
+	// Danh sách thu chi bỏ qua bút toán của hóa đơn đã bị xóa (cả bút toán gốc và
+	// bút toán đảo), giống điều kiện is_deleted = false của các bảng gốc
+	String NOT_DELETED_INVOICE = "NOT EXISTS (SELECT 1 FROM InvoiceEntity i "
+			+ "WHERE l.type = com.viettridao.cafe.common.LedgerEntryType.INVOICE "
+			+ "AND i.id = l.referenceId AND i.isDeleted = true)";
+
+	/**
+	 * Lấy một trang bút toán trong khoảng thời gian, mới nhất trước (bỏ qua hóa
+	 * đơn đã bị xóa).
+	 *
+	 * @param from     ngày bắt đầu
+	 * @param to       ngày kết thúc
+	 * @param pageable thông tin phân trang
+	 * @return trang bút toán
+	 */
+	@Query(value = "SELECT l FROM LedgerEntryEntity l WHERE l.entryDate BETWEEN :from AND :to AND "
+			+ NOT_DELETED_INVOICE + " ORDER BY l.entryDate DESC, l.id DESC", countQuery = "SELECT COUNT(l) "
+					+ "FROM LedgerEntryEntity l WHERE l.entryDate BETWEEN :from AND :to AND " + NOT_DELETED_INVOICE)
+	Page<LedgerEntryEntity> findPageBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			Pageable pageable);
+
+	/**
+	 * Lấy các bút toán đứng sau con trỏ (ngày, id) theo thứ tự hiển thị (ngày và id
+	 * giảm dần), bỏ qua hóa đơn đã bị xóa.
+	 *
+	 * @param from     ngày bắt đầu
+	 * @param to       ngày kết thúc
+	 * @param date     ngày của con trỏ
+	 * @param id       id của con trỏ
+	 * @param pageable số dòng tối đa
+	 * @return các bút toán sau con trỏ
+	 */
+	@Query("SELECT l FROM LedgerEntryEntity l WHERE l.entryDate BETWEEN :from AND :to AND " + NOT_DELETED_INVOICE
+			+ " AND (l.entryDate < :date OR (l.entryDate = :date AND l.id < :id)) ORDER BY l.entryDate DESC, l.id DESC")
+	List<LedgerEntryEntity> findAfter(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("date") LocalDate date, @Param("id") int id, Pageable pageable);
+
+	/**
+	 * Lấy các bút toán đứng trước con trỏ (ngày, id), gần con trỏ nhất trước, bỏ
+	 * qua hóa đơn đã bị xóa.
+	 *
+	 * @param from     ngày bắt đầu
+	 * @param to       ngày kết thúc
+	 * @param date     ngày của con trỏ
+	 * @param id       id của con trỏ
+	 * @param pageable số dòng tối đa
+	 * @return các bút toán trước con trỏ theo thứ tự ngược
+	 */
+	@Query("SELECT l FROM LedgerEntryEntity l WHERE l.entryDate BETWEEN :from AND :to AND " + NOT_DELETED_INVOICE
+			+ " AND (l.entryDate > :date OR (l.entryDate = :date AND l.id > :id)) ORDER BY l.entryDate ASC, l.id ASC")
+	List<LedgerEntryEntity> findBefore(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("date") LocalDate date, @Param("id") int id, Pageable pageable);
+
+	/**
+	 * Tính tổng tiền theo từng ngày và loại bút toán trong khoảng thời gian.
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 * @return danh sách tổng tiền theo (ngày, loại)
+	 */
+	@Query("SELECT new com.viettridao.cafe.dto.response.expenses.LedgerDailyAmountResponse(l.entryDate, l.type, SUM(l.amount)) "
+			+ "FROM LedgerEntryEntity l WHERE l.entryDate BETWEEN :from AND :to GROUP BY l.entryDate, l.type")
+	List<LedgerDailyAmountResponse> sumAmountGroupByDateAndType(@Param("from") LocalDate from,
+			@Param("to") LocalDate to);
+
+	/**
+	 * Tính tổng số tiền đã ghi sổ cho một bản ghi gốc (dùng chỉ mục (type,
+	 * reference_id)).
+	 *
+	 * @param type        loại bút toán
+	 * @param referenceId id của bản ghi gốc
+	 * @return tổng số tiền đã ghi, 0 nếu chưa có bút toán nào
+	 */
+	@Query("SELECT COALESCE(SUM(l.amount), 0) FROM LedgerEntryEntity l WHERE l.type = :type AND l.referenceId = :referenceId")
+	double sumAmountByTypeAndReferenceId(@Param("type") LedgerEntryType type,
+			@Param("referenceId") Integer referenceId);
+
+	/**
+	 * Ghi sổ một lần cho dữ liệu có sẵn. Với hóa đơn, ghi phần chênh lệch giữa số
+	 * tiền phải có trong sổ (tổng tiền nếu đã thanh toán và chưa bị xóa, ngược lại
+	 * 0) và tổng đã ghi, nên vừa ghi bổ sung hóa đơn chưa có trong sổ vừa đảo bút
+	 * toán của hóa đơn đã bị xóa trước đó. Khoản chi và thiết bị chỉ được ghi nếu
+	 * chưa có bút toán nào, nên chạy lại cũng không bị ghi trùng.
+	 *
+	 * @return số bút toán đã ghi
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO ledger_entries (entry_date, type, amount, reference_id, created_at)
+			SELECT DATE(t.created_at), 'INVOICE', t.target - t.posted, t.invoice_id, NOW()
+			FROM (
+				SELECT i.invoice_id, i.created_at,
+					CASE WHEN i.status = 'PAID' AND i.is_deleted = false THEN COALESCE(i.total_amount, 0)
+						ELSE 0 END AS target,
+					COALESCE((SELECT SUM(l.amount) FROM ledger_entries l
+						WHERE l.type = 'INVOICE' AND l.reference_id = i.invoice_id), 0) AS posted
+				FROM invoices i
+				WHERE i.created_at IS NOT NULL
+			) t
+			WHERE ABS(t.target - t.posted) >= 0.005
+			UNION ALL
+			SELECT e.expense_date, 'EXPENSE', e.amount, e.expense_id, NOW()
+			FROM expenses e
+			WHERE e.is_deleted = false AND e.expense_date IS NOT NULL AND e.amount IS NOT NULL
+				AND NOT EXISTS (SELECT 1 FROM ledger_entries l
+					WHERE l.type = 'EXPENSE' AND l.reference_id = e.expense_id)
+			UNION ALL
+			SELECT q.purchase_date, 'EQUIPMENT', q.purchase_price * q.quantity, q.equipment_id, NOW()
+			FROM equipment q
+			WHERE q.is_deleted = false AND q.purchase_date IS NOT NULL AND q.purchase_price IS NOT NULL
+				AND q.quantity IS NOT NULL
+				AND NOT EXISTS (SELECT 1 FROM ledger_entries l
+					WHERE l.type = 'EQUIPMENT' AND l.reference_id = q.equipment_id)
+			""", nativeQuery = true)
+	int backfillFromSources();
+}
@@ -1,5 +1,6 @@
 package com.viettridao.cafe.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -27,6 +28,14 @@ public interface MenuDetailRepository extends JpaRepository<MenuDetailEntity, Lo
 	@Query("SELECT DISTINCT m.unitName FROM MenuDetailEntity m WHERE m.isDeleted = false")
 	List<String> findAllDistinctUnits();
 
+	/**
+	 * Lấy công thức (nguyên liệu và định lượng) của nhiều món trong một truy vấn.
+	 * Mỗi dòng gồm: id món, id sản phẩm nguyên liệu, định lượng cho một phần.
+	 */
+	@Query("SELECT m.menuItem.id, m.product.id, m.quantity FROM MenuDetailEntity m "
+			+ "WHERE m.menuItem.id IN :menuItemIds AND m.isDeleted = false AND m.product IS NOT NULL")
+	List<Object[]> findRecipeLines(@Param("menuItemIds") Collection<Integer> menuItemIds);
+
 	/**
 	 * Lấy toàn bộ chi tiết của 1 món (chưa xóa mềm).
 	 */
@@ -1,11 +1,16 @@
 package com.viettridao.cafe.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.viettridao.cafe.model.ProductEntity;
@@ -31,6 +36,7 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Integer>
 	 * @param pageable thông tin phân trang
 	 * @return trang sản phẩm hợp lệ
 	 */
+	@EntityGraph(attributePaths = "unit")
 	Page<ProductEntity> findAllByIsDeletedFalse(Pageable pageable);
 
 	/**
@@ -41,6 +47,16 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Integer>
 	 */
 	Optional<ProductEntity> findByProductNameIgnoreCase(String productName);
 
+	/**
+	 * Tìm các sản phẩm theo danh sách tên (không phân biệt hoa thường), dùng khi
+	 * nhập hàng loạt.
+	 *
+	 * @param names danh sách tên sản phẩm đã chuyển về chữ thường
+	 * @return danh sách sản phẩm có tên nằm trong danh sách
+	 */
+	@Query("SELECT p FROM ProductEntity p WHERE LOWER(p.productName) IN :names")
+	List<ProductEntity> findByLowerProductNameIn(@Param("names") Collection<String> names);
+
 	/**
 	 * Tìm sản phẩm theo từ khóa tìm kiếm trong tên, không phân biệt hoa thường, và
 	 * chưa bị xóa mềm.
@@ -58,6 +74,7 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Integer>
 	 * @param pageable thông tin phân trang
 	 * @return trang sản phẩm phù hợp
 	 */
+	@EntityGraph(attributePaths = "unit")
 	Page<ProductEntity> findByProductNameContainingIgnoreCaseAndIsDeletedFalse(String keyword, Pageable pageable);
 
 	/**
@@ -67,6 +84,136 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Integer>
 	 * @return sản phẩm tương ứng (nếu có)
 	 */
 	Optional<ProductEntity> findByIdAndIsDeletedFalse(Integer id);
-	
-	
+
+	/**
+	 * Cộng số lượng vào tồn kho của sản phẩm ngay trong câu lệnh UPDATE (không đọc
+	 * rồi ghi lại từ Java). Các thay đổi đang chờ được đẩy xuống trước.
+	 *
+	 * @param id       id sản phẩm
+	 * @param quantity số lượng cộng thêm (âm khi giảm)
+	 * @return số dòng bị ảnh hưởng
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query(value = "UPDATE products SET quantity = COALESCE(quantity, 0) + :quantity WHERE product_id = :id", nativeQuery = true)
+	int addQuantity(@Param("id") Integer id, @Param("quantity") int quantity);
+
+	/**
+	 * Trừ số lượng khỏi tồn kho của sản phẩm nếu còn đủ hàng, kiểm tra và trừ trong
+	 * cùng một câu lệnh UPDATE. Trả về 0 nếu không đủ hàng (không có dòng nào bị
+	 * ảnh hưởng). Các thay đổi đang chờ được đẩy xuống trước.
+	 *
+	 * @param id       id sản phẩm
+	 * @param quantity số lượng cần trừ (dương)
+	 * @return số dòng bị ảnh hưởng (1 nếu trừ thành công, 0 nếu không đủ hàng)
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query(value = "UPDATE products SET quantity = quantity - :quantity WHERE product_id = :id AND quantity >= :quantity", nativeQuery = true)
+	int removeQuantityIfAvailable(@Param("id") Integer id, @Param("quantity") int quantity);
+
+	/**
+	 * Đọc số lượng tồn kho hiện tại của sản phẩm bằng truy vấn khóa dòng (đọc giá
+	 * trị mới nhất thay vì ảnh chụp của giao dịch). Dùng ngay sau addQuantity,
+	 * khi giao dịch đã giữ khóa của dòng này.
+	 *
+	 * @param id id sản phẩm
+	 * @return số lượng tồn kho
+	 */
+	@Query(value = "SELECT COALESCE(quantity, 0) FROM products WHERE product_id = :id FOR UPDATE", nativeQuery = true)
+	int findQuantityForUpdate(@Param("id") Integer id);
+
+	/**
+	 * Đọc giá vốn bình quân hiện tại của các sản phẩm bằng truy vấn khóa dòng (đọc
+	 * giá trị mới nhất thay vì ảnh chụp của giao dịch). Mỗi dòng gồm: id sản phẩm,
+	 * giá vốn bình quân (null nếu chưa có).
+	 *
+	 * @param ids danh sách id sản phẩm
+	 * @return giá vốn bình quân theo sản phẩm
+	 */
+	@Query(value = "SELECT product_id, average_cost FROM products WHERE product_id IN (:ids) FOR UPDATE", nativeQuery = true)
+	List<Object[]> findAverageCostsForUpdate(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Đọc phần định lượng lẻ chưa trừ của các sản phẩm bằng truy vấn khóa dòng. Mỗi
+	 * dòng gồm: id sản phẩm, phần lẻ (null nếu chưa có).
+	 *
+	 * @param ids danh sách id sản phẩm
+	 * @return phần định lượng lẻ theo sản phẩm
+	 */
+	@Query(value = "SELECT product_id, consumption_remainder FROM products WHERE product_id IN (:ids) FOR UPDATE", nativeQuery = true)
+	List<Object[]> findConsumptionRemaindersForUpdate(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Kiểm tra có sản phẩm có đơn nhập (chưa bị xóa, có đơn giá) nhưng chưa có giá
+	 * vốn bình quân hay không (dữ liệu có từ trước khi thêm cột giá vốn). Sản phẩm
+	 * chỉ có đơn nhập đã bị xóa không được tính, vì phát lại cũng không cho ra giá
+	 * vốn.
+	 *
+	 * @return true nếu cần tính lại giá vốn
+	 */
+	@Query("SELECT COUNT(p) > 0 FROM ProductEntity p WHERE p.averageCost IS NULL AND EXISTS ("
+			+ "SELECT 1 FROM ImportEntity i WHERE i.product = p AND i.isDeleted = false AND i.price IS NOT NULL)")
+	boolean existsMissingAverageCost();
+
+	/**
+	 * Lấy toàn bộ sản phẩm chưa bị xóa kèm đơn vị tính.
+	 *
+	 * @return danh sách sản phẩm
+	 */
+	@Query("SELECT p FROM ProductEntity p JOIN FETCH p.unit WHERE p.isDeleted = false")
+	List<ProductEntity> findActiveWithUnit();
+
+	/**
+	 * Lấy các sản phẩm chưa bị xóa theo danh sách id, kèm đơn vị tính.
+	 *
+	 * @param ids danh sách id sản phẩm
+	 * @return danh sách sản phẩm
+	 */
+	@Query("SELECT p FROM ProductEntity p JOIN FETCH p.unit WHERE p.id IN :ids AND p.isDeleted = false")
+	List<ProductEntity> findActiveWithUnitByIdIn(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Lấy các sản phẩm chưa bị xóa có tồn kho không vượt quá ngưỡng đặt hàng lại
+	 * (kèm đơn vị tính).
+	 *
+	 * @return danh sách sản phẩm sắp hết hàng
+	 */
+	@Query("SELECT p FROM ProductEntity p JOIN FETCH p.unit WHERE p.isDeleted = false AND p.reorderThreshold > 0 "
+			+ "AND COALESCE(p.quantity, 0) <= p.reorderThreshold")
+	List<ProductEntity> findLowStock();
+
+	/**
+	 * Lấy các sản phẩm chưa có ảnh chụp nhập xuất (giá trị tồn kho chưa được
+	 * tính).
+	 *
+	 * @return danh sách sản phẩm cần dựng ảnh chụp
+	 */
+	List<ProductEntity> findByTotalAmountIsNull();
+
+	/**
+	 * Lấy giá và ngày nhập mới nhất, ngày xuất cuối cùng của cả một trang sản
+	 * phẩm trong một truy vấn. Lần nhập mới nhất được chọn bằng ROW_NUMBER() theo
+	 * từng sản phẩm, bỏ qua các đơn nhập/xuất đã bị xóa mềm. Mỗi dòng gồm: id sản
+	 * phẩm, giá nhập, ngày nhập, ngày xuất (null nếu chưa có).
+	 *
+	 * @param productIds danh sách id sản phẩm
+	 * @return thông tin nhập xuất gần nhất theo sản phẩm
+	 */
+	@Query(value = """
+			SELECT p.product_id, li.price, li.import_date, le.export_date
+			FROM products p
+			LEFT JOIN (
+				SELECT i.product_id, i.price, i.import_date,
+					ROW_NUMBER() OVER (PARTITION BY i.product_id ORDER BY i.import_date DESC, i.imports_id DESC) AS rn
+				FROM imports i
+				WHERE i.product_id IN (:productIds) AND i.is_deleted = false
+			) li ON li.product_id = p.product_id AND li.rn = 1
+			LEFT JOIN (
+				SELECT e.product_id, MAX(e.export_date) AS export_date
+				FROM exports e
+				WHERE e.product_id IN (:productIds) AND e.is_deleted = false
+				GROUP BY e.product_id
+			) le ON le.product_id = p.product_id
+			WHERE p.product_id IN (:productIds)
+			""", nativeQuery = true)
+	List<Object[]> findStockMetaByProductIds(@Param("productIds") Collection<Integer> productIds);
 }
@@ -0,0 +1,99 @@
+package com.viettridao.cafe.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.viettridao.cafe.model.StockMovementEntity;
+
+/**
+ * Repository thao tác với sổ kho (stock_movements).
+ */
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovementEntity, Integer> {
+
+	/**
+	 * Lấy dòng sổ kho mới nhất của sản phẩm (mang số dư hiện tại). Được phục vụ
+	 * bằng chỉ mục (product_id, stock_movement_id), chỉ đọc một dòng.
+	 *
+	 * @param productId id sản phẩm
+	 * @return dòng sổ kho mới nhất (nếu có)
+	 */
+	Optional<StockMovementEntity> findTopByProduct_IdOrderByIdDesc(Integer productId);
+
+	/**
+	 * Tổng lượng xuất và tiêu hao theo sản phẩm và ngày kể từ một ngày, dùng để
+	 * dựng lại dự báo khi khởi động. Mỗi dòng gồm: id sản phẩm, ngày, lượng dùng
+	 * (dương).
+	 *
+	 * @param from ngày bắt đầu
+	 * @return lượng dùng theo sản phẩm và ngày, sắp xếp theo sản phẩm và ngày
+	 */
+	@Query(value = """
+			SELECT m.product_id, m.movement_date, -SUM(m.quantity)
+			FROM stock_movements m
+			WHERE m.movement_date >= :from AND m.type IN ('EXPORT', 'CONSUMPTION')
+			GROUP BY m.product_id, m.movement_date
+			ORDER BY m.product_id, m.movement_date
+			""", nativeQuery = true)
+	List<Object[]> sumDailyUsageSince(@Param("from") LocalDate from);
+
+	/**
+	 * Ghi số dư đầu kỳ (bằng số lượng hiện tại) cho các sản phẩm chưa có dòng sổ
+	 * kho nào.
+	 *
+	 * @return số dòng đã ghi
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO stock_movements (product_id, type, quantity, balance, reference_id, movement_date, created_at)
+			SELECT p.product_id, 'OPENING', COALESCE(p.quantity, 0), COALESCE(p.quantity, 0), NULL, CURDATE(), NOW()
+			FROM products p
+			WHERE NOT EXISTS (SELECT 1 FROM stock_movements m WHERE m.product_id = p.product_id)
+			""", nativeQuery = true)
+	int backfillOpeningBalances();
+
+	/**
+	 * Lấy số liệu đối chiếu tồn kho của các sản phẩm chưa bị xóa. Mỗi dòng gồm: id
+	 * sản phẩm, tên, số dư sổ kho mới nhất, số lượng trên sản phẩm, tổng nhập,
+	 * tổng xuất, tổng số dư đầu kỳ và điều chỉnh.
+	 * <p>
+	 * Chỉ đơn nhập/xuất chưa bị xóa mềm và đã được ghi sổ kho mới được tính: hàng
+	 * nhập/xuất trước khi có sổ kho đã nằm trong số dư đầu kỳ.
+	 *
+	 * @return số liệu đối chiếu theo sản phẩm
+	 */
+	@Query(value = """
+			SELECT p.product_id, p.product_name, m.balance, p.quantity,
+				COALESCE(i.qty, 0), COALESCE(e.qty, 0), COALESCE(a.qty, 0)
+			FROM products p
+			LEFT JOIN stock_movements m ON m.stock_movement_id =
+				(SELECT MAX(m2.stock_movement_id) FROM stock_movements m2 WHERE m2.product_id = p.product_id)
+			LEFT JOIN (
+				SELECT product_id, SUM(quantity) AS qty FROM imports i2
+				WHERE is_deleted = false AND EXISTS (SELECT 1 FROM stock_movements m3
+					WHERE m3.type = 'IMPORT' AND m3.reference_id = i2.imports_id)
+				GROUP BY product_id
+			) i ON i.product_id = p.product_id
+			LEFT JOIN (
+				SELECT product_id, SUM(quantity) AS qty FROM exports e2
+				WHERE is_deleted = false AND EXISTS (SELECT 1 FROM stock_movements m3
+					WHERE m3.type IN ('EXPORT', 'CONSUMPTION') AND m3.reference_id = e2.exports_id)
+				GROUP BY product_id
+			) e ON e.product_id = p.product_id
+			LEFT JOIN (
+				SELECT product_id, SUM(quantity) AS qty FROM stock_movements
+				WHERE type IN ('OPENING', 'ADJUSTMENT')
+				GROUP BY product_id
+			) a ON a.product_id = p.product_id
+			WHERE p.is_deleted = false
+			ORDER BY p.product_id
+			""", nativeQuery = true)
+	List<Object[]> findStockReconciliation();
+}
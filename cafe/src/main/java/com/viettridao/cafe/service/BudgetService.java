@@ -4,6 +4,7 @@ import org.springframework.data.domain.Page;
 
 import com.viettridao.cafe.dto.request.expenses.BudgetFilterRequest;
 import com.viettridao.cafe.dto.request.expenses.ExpenseRequest;
+import com.viettridao.cafe.dto.response.expenses.BudgetCursorPageResponse;
 import com.viettridao.cafe.dto.response.expenses.BudgetViewResponse;
 
 /**
@@ -20,6 +21,16 @@ public interface BudgetService {
 	 */
 	Page<BudgetViewResponse> getBudgetView(BudgetFilterRequest request);
 
+	/**
+	 * Lấy một trang danh sách ngân sách theo con trỏ (keyset). Chi phí mỗi trang
+	 * không phụ thuộc vào việc trang nằm ở đầu hay cuối danh sách.
+	 *
+	 * @param request các tham số lọc, con trỏ (rỗng = trang đầu) và kích thước
+	 *                trang
+	 * @return trang dữ liệu kèm con trỏ trang trước và trang sau
+	 */
+	BudgetCursorPageResponse getBudgetViewByCursor(BudgetFilterRequest request);
+
 	/**
 	 * Thêm một khoản chi mới vào hệ thống ngân sách.
 	 *
@@ -0,0 +1,30 @@
+package com.viettridao.cafe.service;
+
+import java.time.LocalDate;
+
+import com.viettridao.cafe.dto.response.expenses.BudgetTotalsResponse;
+
+/**
+ * Interface định nghĩa các phương thức tính tổng thu chi của danh sách ngân
+ * sách.
+ */
+public interface BudgetTotalsService {
+
+	/**
+	 * Tính tổng thu (hóa đơn đã thanh toán) và tổng chi (khoản chi, thiết bị mua
+	 * vào theo giá x số lượng) của cả khoảng thời gian.
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 * @return tổng thu và tổng chi
+	 */
+	BudgetTotalsResponse getTotals(LocalDate from, LocalDate to);
+
+	/**
+	 * Xóa tổng đã lưu của một ngày khi dữ liệu thu chi của ngày đó thay đổi.
+	 * Nếu đang trong giao dịch, tổng được xóa thêm sau khi giao dịch kết thúc.
+	 *
+	 * @param date ngày có thay đổi
+	 */
+	void evict(LocalDate date);
+}
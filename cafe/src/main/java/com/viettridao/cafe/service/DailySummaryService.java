@@ -0,0 +1,75 @@
+package com.viettridao.cafe.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.viettridao.cafe.dto.response.reportstatistics.DailySummaryCheckResponse;
+import com.viettridao.cafe.model.DailySummaryEntity;
+
+/**
+ * Giao diện dịch vụ cho bảng tổng hợp thu chi theo ngày (daily_summary). Bảng
+ * được cập nhật trong cùng giao dịch với các nghiệp vụ thanh toán, nhập hàng,
+ * xuất hàng và thêm chi tiêu.
+ */
+public interface DailySummaryService {
+
+	/**
+	 * Cộng thêm doanh thu vào ngày tương ứng.
+	 *
+	 * @param date   ngày phát sinh
+	 * @param amount số tiền (có thể âm để điều chỉnh)
+	 */
+	void addRevenue(LocalDate date, Double amount);
+
+	/**
+	 * Cộng thêm tiền nhập hàng vào ngày tương ứng.
+	 *
+	 * @param date   ngày phát sinh
+	 * @param amount số tiền (có thể âm để điều chỉnh)
+	 */
+	void addImportCost(LocalDate date, Double amount);
+
+	/**
+	 * Cộng thêm tiền xuất hàng vào ngày tương ứng.
+	 *
+	 * @param date   ngày phát sinh
+	 * @param amount số tiền (có thể âm để điều chỉnh)
+	 */
+	void addExportCost(LocalDate date, Double amount);
+
+	/**
+	 * Cộng thêm chi phí khác vào ngày tương ứng.
+	 *
+	 * @param date   ngày phát sinh
+	 * @param amount số tiền (có thể âm để điều chỉnh)
+	 */
+	void addOtherExpense(LocalDate date, Double amount);
+
+	/**
+	 * Lấy các dòng tổng hợp trong khoảng thời gian. Ngày không có dữ liệu sẽ không
+	 * có dòng tương ứng.
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 * @return danh sách dòng tổng hợp theo ngày
+	 */
+	List<DailySummaryEntity> getSummaries(LocalDate from, LocalDate to);
+
+	/**
+	 * Dựng lại bảng tổng hợp cho khoảng thời gian từ dữ liệu gốc.
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 * @return số ngày có dữ liệu sau khi dựng lại
+	 */
+	int rebuild(LocalDate from, LocalDate to);
+
+	/**
+	 * So sánh bảng tổng hợp với dữ liệu gốc trong khoảng thời gian.
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 * @return danh sách các ngày bị lệch (rỗng nếu khớp hoàn toàn)
+	 */
+	List<DailySummaryCheckResponse> check(LocalDate from, LocalDate to);
+}
@@ -1,5 +1,6 @@
 package com.viettridao.cafe.service;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -52,4 +53,16 @@ public interface ExportService {
 	 * @return đối tượng Page chứa các ExportResponse của trang tương ứng
 	 */
 	Page<ExportResponse> getExportsByProductId(Integer productId, int page, int size);
+
+	/**
+	 * Lấy lịch sử xuất hàng có phân trang, lọc theo khoảng ngày và sản phẩm.
+	 *
+	 * @param from      ngày bắt đầu (null là không giới hạn)
+	 * @param to        ngày kết thúc (null là không giới hạn)
+	 * @param productId ID sản phẩm (null là tất cả)
+	 * @param page      số trang bắt đầu từ 0
+	 * @param size      số lượng bản ghi trên mỗi trang
+	 * @return đối tượng Page chứa các ExportResponse của trang tương ứng
+	 */
+	Page<ExportResponse> getHistory(LocalDate from, LocalDate to, Integer productId, int page, int size);
 }
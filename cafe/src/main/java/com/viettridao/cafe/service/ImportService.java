@@ -1,10 +1,14 @@
 package com.viettridao.cafe.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 
 import com.viettridao.cafe.dto.request.imports.ImportRequest;
+import com.viettridao.cafe.dto.response.imports.BulkImportResponse;
 import com.viettridao.cafe.dto.response.imports.ImportResponse;
 
 /**
@@ -21,6 +25,15 @@ public interface ImportService {
 	 */
 	ImportResponse createImport(ImportRequest request);
 
+	/**
+	 * Nhập hàng loạt từ file CSV. Các dòng lỗi được bỏ qua và trả về trong kết quả.
+	 *
+	 * @param in nội dung file CSV (UTF-8)
+	 * @return kết quả nhập kèm danh sách lỗi theo dòng
+	 * @throws IOException nếu không đọc được file
+	 */
+	BulkImportResponse bulkImport(InputStream in) throws IOException;
+
 	/**
 	 * Lấy danh sách tất cả các bản ghi nhập hàng.
 	 *
@@ -45,4 +58,16 @@ public interface ImportService {
 	 * @return đối tượng Page chứa các ImportResponse của trang tương ứng
 	 */
 	Page<ImportResponse> getImportsByProductId(Integer productId, int page, int size);
+
+	/**
+	 * Lấy lịch sử nhập hàng có phân trang, lọc theo khoảng ngày và sản phẩm.
+	 *
+	 * @param from      ngày bắt đầu (null là không giới hạn)
+	 * @param to        ngày kết thúc (null là không giới hạn)
+	 * @param productId ID sản phẩm (null là tất cả)
+	 * @param page      số trang bắt đầu từ 0
+	 * @param size      số lượng bản ghi trên mỗi trang
+	 * @return đối tượng Page chứa các ImportResponse của trang tương ứng
+	 */
+	Page<ImportResponse> getHistory(LocalDate from, LocalDate to, Integer productId, int page, int size);
 }
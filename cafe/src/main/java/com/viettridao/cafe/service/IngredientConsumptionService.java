@@ -0,0 +1,25 @@
+package com.viettridao.cafe.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.viettridao.cafe.model.InvoiceDetailEntity;
+
+/**
+ * Interface định nghĩa việc trừ nguyên liệu trong kho theo công thức món khi
+ * hóa đơn được thanh toán.
+ */
+public interface IngredientConsumptionService {
+
+	/**
+	 * Trừ nguyên liệu cho các món của một hóa đơn: gộp định lượng theo sản phẩm,
+	 * tạo một đơn xuất cho mỗi sản phẩm và ghi sổ kho (CONSUMPTION) theo lô, trong
+	 * giao dịch của nghiệp vụ gọi tới.
+	 *
+	 * @param invoiceId id hóa đơn
+	 * @param items     chi tiết hóa đơn
+	 * @param date      ngày hóa đơn
+	 * @return số sản phẩm nguyên liệu đã được trừ
+	 */
+	int consume(Integer invoiceId, List<InvoiceDetailEntity> items, LocalDate date);
+}
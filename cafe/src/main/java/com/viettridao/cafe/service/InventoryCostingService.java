@@ -0,0 +1,59 @@
+package com.viettridao.cafe.service;
+
+import java.util.Collection;
+
+import com.viettridao.cafe.model.ProductEntity;
+
+/**
+ * Interface định nghĩa các phương thức tính giá vốn hàng tồn kho theo phương
+ * pháp bình quân gia quyền di động: giá vốn bình quân lưu ngay trên sản phẩm,
+ * được cập nhật mỗi lần nhập và dùng để định giá mỗi lần xuất.
+ */
+public interface InventoryCostingService {
+
+	/**
+	 * Nạp giá vốn bình quân mới nhất của các sản phẩm bằng truy vấn khóa dòng. Gọi
+	 * sau khi đã cập nhật tồn kho (giao dịch đang giữ khóa các dòng này), trước khi
+	 * tính giá vốn.
+	 *
+	 * @param products danh sách sản phẩm
+	 */
+	void lockCosts(Collection<ProductEntity> products);
+
+	/**
+	 * Cập nhật giá vốn bình quân sau một lần nhập. Sản phẩm cần được lưu bởi nghiệp
+	 * vụ gọi tới.
+	 *
+	 * @param product        sản phẩm (đã nạp giá vốn bằng lockCosts)
+	 * @param quantityBefore số lượng tồn trước lần nhập
+	 * @param quantity       số lượng nhập
+	 * @param price          đơn giá nhập
+	 */
+	void onImport(ProductEntity product, int quantityBefore, int quantity, Double price);
+
+	/**
+	 * Tính giá vốn của một lần xuất theo giá vốn bình quân hiện tại (dùng giá nhập
+	 * mới nhất nếu sản phẩm chưa có giá vốn).
+	 *
+	 * @param product  sản phẩm (đã nạp giá vốn bằng lockCosts)
+	 * @param quantity số lượng xuất
+	 * @return giá vốn của lần xuất
+	 */
+	double costOf(ProductEntity product, int quantity);
+
+	/**
+	 * Tính lại giá vốn bình quân của toàn bộ sản phẩm có sổ kho bằng cách phát lại
+	 * sổ kho theo thứ tự ghi sổ.
+	 *
+	 * @return số sản phẩm đã được tính lại
+	 */
+	int replayAll();
+
+	/**
+	 * Tính lại giá vốn bình quân của một sản phẩm bằng cách phát lại sổ kho (dùng
+	 * khi đơn nhập cũ bị sửa). Sản phẩm cần được lưu bởi nghiệp vụ gọi tới.
+	 *
+	 * @param product sản phẩm
+	 */
+	void replay(ProductEntity product);
+}
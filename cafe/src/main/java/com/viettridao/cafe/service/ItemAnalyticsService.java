@@ -0,0 +1,40 @@
+package com.viettridao.cafe.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.viettridao.cafe.dto.response.reportstatistics.ItemSalesResponse;
+
+/**
+ * Giao diện dịch vụ thống kê món bán chạy dựa trên chi tiết hóa đơn.
+ */
+public interface ItemAnalyticsService {
+
+	/**
+	 * Lấy các món bán được nhiều nhất theo số lượng.
+	 *
+	 * @param from  ngày bắt đầu
+	 * @param to    ngày kết thúc
+	 * @param limit số món tối đa
+	 * @return danh sách món, số lượng giảm dần
+	 */
+	List<ItemSalesResponse> getTopByQuantity(LocalDate from, LocalDate to, int limit);
+
+	/**
+	 * Lấy các món có doanh thu cao nhất.
+	 *
+	 * @param from  ngày bắt đầu
+	 * @param to    ngày kết thúc
+	 * @param limit số món tối đa
+	 * @return danh sách món, doanh thu giảm dần
+	 */
+	List<ItemSalesResponse> getTopByRevenue(LocalDate from, LocalDate to, int limit);
+
+	/**
+	 * Xóa số liệu đã lưu của một ngày khi có hóa đơn của ngày đó được thanh toán.
+	 * Nếu đang trong giao dịch, số liệu được xóa thêm sau khi giao dịch kết thúc.
+	 *
+	 * @param date ngày có thay đổi
+	 */
+	void evict(LocalDate date);
+}
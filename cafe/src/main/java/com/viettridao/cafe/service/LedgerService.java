@@ -0,0 +1,55 @@
+package com.viettridao.cafe.service;
+
+import java.time.LocalDate;
+
+import com.viettridao.cafe.common.LedgerEntryType;
+import com.viettridao.cafe.model.InvoiceEntity;
+
+/**
+ * Interface định nghĩa các phương thức ghi sổ thu chi. Sổ chỉ được thêm bút
+ * toán: thay đổi hoặc xóa dữ liệu gốc được ghi thành bút toán điều chỉnh.
+ */
+public interface LedgerService {
+
+	/**
+	 * Ghi một bút toán, tham gia vào giao dịch đang chạy của nghiệp vụ gọi tới. Bỏ
+	 * qua nếu không có ngày hoặc số tiền bằng 0.
+	 *
+	 * @param type        loại bút toán
+	 * @param referenceId id của bản ghi gốc
+	 * @param date        ngày phát sinh
+	 * @param amount      số tiền (âm nếu là điều chỉnh giảm)
+	 */
+	void record(LedgerEntryType type, Integer referenceId, LocalDate date, Double amount);
+
+	/**
+	 * Ghi bút toán điều chỉnh khi một khoản đã ghi sổ thay đổi ngày hoặc số tiền:
+	 * ghi âm số cũ vào ngày cũ và ghi số mới vào ngày mới (gộp thành một bút toán
+	 * chênh lệch nếu cùng ngày).
+	 *
+	 * @param type        loại bút toán
+	 * @param referenceId id của bản ghi gốc
+	 * @param oldDate     ngày cũ
+	 * @param oldAmount   số tiền cũ
+	 * @param newDate     ngày mới
+	 * @param newAmount   số tiền mới
+	 */
+	void adjust(LedgerEntryType type, Integer referenceId, LocalDate oldDate, Double oldAmount, LocalDate newDate,
+			Double newAmount);
+
+	/**
+	 * Đưa số tiền đã ghi sổ của một hóa đơn về đúng trạng thái hiện tại của hóa
+	 * đơn: tổng tiền nếu đã thanh toán và chưa bị xóa, ngược lại 0. Phần chênh
+	 * lệch được ghi thành một bút toán (âm nếu là đảo bút toán) vào ngày tạo hóa
+	 * đơn. Cần gọi sau mọi thay đổi hóa đơn (thanh toán, xóa, gộp, tách bàn...).
+	 *
+	 * @param invoice hóa đơn vừa thay đổi
+	 */
+	void syncInvoice(InvoiceEntity invoice);
+
+	/**
+	 * Ghi sổ cho dữ liệu có sẵn đúng một lần, được đánh dấu trong bảng
+	 * data_migrations (không phụ thuộc vào việc sổ đã có bút toán hay chưa).
+	 */
+	void backfillOnce();
+}
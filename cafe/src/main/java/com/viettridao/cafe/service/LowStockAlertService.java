@@ -0,0 +1,41 @@
+package com.viettridao.cafe.service;
+
+import java.util.List;
+
+import com.viettridao.cafe.dto.response.product.LowStockAlertResponse;
+import com.viettridao.cafe.model.ProductEntity;
+
+/**
+ * Interface định nghĩa các phương thức của bảng chỉ mục cảnh báo sắp hết hàng
+ * (giữ trong bộ nhớ, cập nhật theo từng lần nhập, xuất, tiêu hao).
+ */
+public interface LowStockAlertService {
+
+	/**
+	 * Đánh giá lại sản phẩm sau khi tồn kho, ngưỡng hoặc trạng thái xóa thay đổi.
+	 * Gọi trong giao dịch, ngay sau khi cập nhật tồn kho; bảng chỉ mục chỉ thay đổi
+	 * khi giao dịch commit.
+	 *
+	 * @param product sản phẩm (số lượng đã được cập nhật)
+	 */
+	void onStockChanged(ProductEntity product);
+
+	/**
+	 * Lấy các sản phẩm đang dưới ngưỡng, sắp xếp theo tên.
+	 *
+	 * @return danh sách cảnh báo
+	 */
+	List<LowStockAlertResponse> getAlerts();
+
+	/**
+	 * Số sản phẩm đang dưới ngưỡng.
+	 *
+	 * @return số cảnh báo
+	 */
+	int getAlertCount();
+
+	/**
+	 * Dựng lại bảng chỉ mục bằng một truy vấn.
+	 */
+	void rebuild();
+}
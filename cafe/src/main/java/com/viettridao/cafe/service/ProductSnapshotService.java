@@ -0,0 +1,48 @@
+package com.viettridao.cafe.service;
+
+import java.time.LocalDate;
+
+import com.viettridao.cafe.model.ProductEntity;
+
+/**
+ * Interface định nghĩa các phương thức cập nhật ảnh chụp nhập xuất của sản phẩm
+ * (giá nhập mới nhất, ngày nhập, ngày xuất, giá trị tồn kho) lưu ngay trên bảng
+ * products.
+ */
+public interface ProductSnapshotService {
+
+	/**
+	 * Cập nhật ảnh chụp sau khi nhập hàng. Chỉ thay giá nhập nếu lần nhập này không
+	 * cũ hơn lần nhập mới nhất đã ghi nhận. Sản phẩm cần được lưu bởi nghiệp vụ gọi
+	 * tới.
+	 *
+	 * @param product sản phẩm (số lượng đã được cập nhật)
+	 * @param date    ngày nhập
+	 * @param price   giá nhập
+	 */
+	void onImport(ProductEntity product, LocalDate date, Double price);
+
+	/**
+	 * Cập nhật ảnh chụp sau khi xuất hàng. Sản phẩm cần được lưu bởi nghiệp vụ gọi
+	 * tới.
+	 *
+	 * @param product sản phẩm (số lượng đã được cập nhật)
+	 * @param date    ngày xuất
+	 */
+	void onExport(ProductEntity product, LocalDate date);
+
+	/**
+	 * Tính lại ảnh chụp của một sản phẩm từ lịch sử nhập xuất (dùng khi đơn nhập cũ
+	 * bị sửa).
+	 *
+	 * @param product sản phẩm
+	 */
+	void refresh(ProductEntity product);
+
+	/**
+	 * Dựng lại ảnh chụp của toàn bộ sản phẩm từ lịch sử nhập xuất, theo từng lô.
+	 *
+	 * @return số sản phẩm đã được dựng lại
+	 */
+	int rebuildAll();
+}
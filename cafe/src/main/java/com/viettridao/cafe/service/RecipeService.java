@@ -0,0 +1,28 @@
+package com.viettridao.cafe.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Interface định nghĩa các phương thức đọc công thức món (nguyên liệu và định
+ * lượng cho một phần) có lưu đệm trong bộ nhớ.
+ */
+public interface RecipeService {
+
+	/**
+	 * Lấy công thức của các món. Các món chưa có trong bộ nhớ được nạp bằng một
+	 * truy vấn.
+	 *
+	 * @param menuItemIds danh sách id món
+	 * @return id món -> (id sản phẩm nguyên liệu -> định lượng cho một phần); món
+	 *         không có nguyên liệu trả về map rỗng
+	 */
+	Map<Integer, Map<Integer, Double>> getRecipes(Collection<Integer> menuItemIds);
+
+	/**
+	 * Bỏ công thức đã lưu của một món (khi món được thêm, sửa hoặc xóa).
+	 *
+	 * @param menuItemId id món
+	 */
+	void evict(Integer menuItemId);
+}
@@ -0,0 +1,67 @@
+package com.viettridao.cafe.service;
+
+import java.time.LocalDate;
+
+import com.viettridao.cafe.common.ReportType;
+import com.viettridao.cafe.dto.response.reportstatistics.ReportCacheStatsResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.ReportItemResponse;
+
+/**
+ * Giao diện bộ nhớ đệm kết quả báo cáo theo từng ngày và loại báo cáo. Các ngày
+ * đã qua được giữ lại lâu dài, ngày có dữ liệu thay đổi sẽ bị xóa khỏi bộ nhớ
+ * đệm.
+ */
+public interface ReportCacheService {
+
+	/**
+	 * Lấy kết quả đã lưu của một ngày.
+	 *
+	 * @param date ngày cần lấy
+	 * @param type loại báo cáo
+	 * @return kết quả đã lưu, hoặc null nếu chưa có
+	 */
+	ReportItemResponse get(LocalDate date, ReportType type);
+
+	/**
+	 * Lấy phiên bản hiện tại của bộ nhớ đệm. Cần lấy trước khi đọc dữ liệu gốc và
+	 * truyền lại khi lưu kết quả.
+	 *
+	 * @return phiên bản hiện tại
+	 */
+	long currentVersion();
+
+	/**
+	 * Lưu kết quả của một ngày. Bỏ qua nếu đã có thay đổi dữ liệu kể từ phiên bản
+	 * được truyền vào (kết quả có thể đã cũ).
+	 *
+	 * @param date    ngày
+	 * @param type    loại báo cáo
+	 * @param item    kết quả
+	 * @param version phiên bản lấy trước khi đọc dữ liệu gốc
+	 */
+	void put(LocalDate date, ReportType type, ReportItemResponse item, long version);
+
+	/**
+	 * Xóa kết quả của một ngày (mọi loại báo cáo) khi dữ liệu của ngày đó thay
+	 * đổi. Nếu đang trong giao dịch thì xóa thêm một lần sau khi giao dịch được
+	 * commit.
+	 *
+	 * @param date ngày có dữ liệu thay đổi
+	 */
+	void evict(LocalDate date);
+
+	/**
+	 * Xóa kết quả của các ngày trong khoảng thời gian.
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 */
+	void evictRange(LocalDate from, LocalDate to);
+
+	/**
+	 * Lấy số lần trúng/trượt bộ nhớ đệm.
+	 *
+	 * @return thống kê bộ nhớ đệm
+	 */
+	ReportCacheStatsResponse getStats();
+}
@@ -0,0 +1,67 @@
+package com.viettridao.cafe.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.function.LongConsumer;
+
+import com.viettridao.cafe.common.ReportFormat;
+import com.viettridao.cafe.common.ReportGranularity;
+import com.viettridao.cafe.common.ReportType;
+
+/**
+ * Giao diện dịch vụ xuất báo cáo ra file (PDF hoặc dạng văn bản phân cách bằng
+ * tab).
+ */
+public interface ReportExportService {
+
+	/**
+	 * Ghi báo cáo trực tiếp vào luồng đầu ra, từng dòng một, không dựng toàn bộ
+	 * file trong bộ nhớ.
+	 *
+	 * @param from   Ngày bắt đầu.
+	 * @param to     Ngày kết thúc.
+	 * @param type        Loại báo cáo.
+	 * @param granularity Mức gộp thời gian của báo cáo thu chi.
+	 * @param format      Định dạng file (PDF, TXT, XLS, SQL).
+	 * @param out         Luồng đầu ra cần ghi.
+	 * @throws IOException Nếu không ghi được vào luồng đầu ra.
+	 */
+	void writeReport(LocalDate from, LocalDate to, ReportType type, ReportGranularity granularity,
+			ReportFormat format, OutputStream out) throws IOException;
+
+	/**
+	 * Ghi báo cáo trực tiếp vào luồng đầu ra và báo lại số dòng dữ liệu đã ghi sau
+	 * mỗi dòng (dùng để theo dõi tiến độ).
+	 *
+	 * @param from        Ngày bắt đầu.
+	 * @param to          Ngày kết thúc.
+	 * @param type        Loại báo cáo.
+	 * @param granularity Mức gộp thời gian của báo cáo thu chi.
+	 * @param format      Định dạng file (PDF, TXT, XLS, SQL).
+	 * @param out         Luồng đầu ra cần ghi.
+	 * @param rowListener Nhận số dòng đã ghi.
+	 * @throws IOException Nếu không ghi được vào luồng đầu ra.
+	 */
+	void writeReport(LocalDate from, LocalDate to, ReportType type, ReportGranularity granularity,
+			ReportFormat format, OutputStream out, LongConsumer rowListener) throws IOException;
+
+	/**
+	 * Ước tính số dòng dữ liệu của báo cáo (dùng để tính phần trăm tiến độ).
+	 *
+	 * @param from        Ngày bắt đầu.
+	 * @param to          Ngày kết thúc.
+	 * @param type        Loại báo cáo.
+	 * @param granularity Mức gộp thời gian của báo cáo thu chi.
+	 * @return Số dòng dữ liệu dự kiến.
+	 */
+	long countRows(LocalDate from, LocalDate to, ReportType type, ReportGranularity granularity);
+
+	/**
+	 * Lấy tên file tải về tương ứng với định dạng.
+	 *
+	 * @param format Định dạng file.
+	 * @return Tên file, ví dụ report.pdf.
+	 */
+	String getFileName(ReportFormat format);
+}
@@ -0,0 +1,55 @@
+package com.viettridao.cafe.service;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.viettridao.cafe.common.ReportFormat;
+import com.viettridao.cafe.common.ReportGranularity;
+import com.viettridao.cafe.common.ReportType;
+import com.viettridao.cafe.dto.response.reportstatistics.ReportJobResponse;
+
+/**
+ * Giao diện dịch vụ cho các tác vụ xuất báo cáo chạy nền.
+ */
+public interface ReportJobService {
+
+	/**
+	 * Đưa một tác vụ xuất báo cáo vào hàng đợi. Nếu đã có tác vụ giống hệt (cùng
+	 * khoảng thời gian, loại, mức gộp và định dạng) đang chờ hoặc đang chạy thì
+	 * dùng lại tác vụ đó. Tác vụ đã xong chỉ được dùng lại khi khoảng thời gian
+	 * kết thúc trước ngày tạo tác vụ và file còn mới.
+	 *
+	 * @param from        Ngày bắt đầu.
+	 * @param to          Ngày kết thúc.
+	 * @param type        Loại báo cáo.
+	 * @param granularity Mức gộp thời gian.
+	 * @param format      Định dạng file (PDF, TXT, XLS, SQL).
+	 * @return Thông tin tác vụ.
+	 */
+	ReportJobResponse submit(LocalDate from, LocalDate to, ReportType type, ReportGranularity granularity,
+			ReportFormat format);
+
+	/**
+	 * Lấy trạng thái và tiến độ của một tác vụ.
+	 *
+	 * @param id Mã tác vụ.
+	 * @return Thông tin tác vụ.
+	 */
+	ReportJobResponse getJob(String id);
+
+	/**
+	 * Lấy danh sách các tác vụ, mới nhất trước.
+	 *
+	 * @return Danh sách tác vụ.
+	 */
+	List<ReportJobResponse> getJobs();
+
+	/**
+	 * Lấy đường dẫn file kết quả của một tác vụ đã hoàn tất.
+	 *
+	 * @param id Mã tác vụ.
+	 * @return Đường dẫn file trên đĩa.
+	 */
+	Path getFile(String id);
+}
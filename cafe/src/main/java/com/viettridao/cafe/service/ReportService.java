@@ -2,7 +2,12 @@ package com.viettridao.cafe.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.viettridao.cafe.common.ReportGranularity;
 import com.viettridao.cafe.common.ReportType;
 import com.viettridao.cafe.dto.response.employee.EmployeeDailySalaryResponse;
 import com.viettridao.cafe.dto.response.reportstatistics.ReportItemResponse;
@@ -22,6 +27,20 @@ public interface ReportService {
 	 */
 	List<ReportItemResponse> getReport(LocalDate fromDate, LocalDate toDate, ReportType type);
 
+	/**
+	 * Lấy báo cáo theo loại báo cáo, gộp theo kỳ (ngày, tuần, tháng, quý, năm).
+	 * Mỗi phần tử ứng với một kỳ, ngày của phần tử là ngày đầu tiên của kỳ nằm
+	 * trong khoảng thời gian.
+	 *
+	 * @param fromDate    Ngày bắt đầu của báo cáo.
+	 * @param toDate      Ngày kết thúc của báo cáo.
+	 * @param type        Loại báo cáo.
+	 * @param granularity Mức gộp thời gian.
+	 * @return Danh sách các mục báo cáo theo kỳ.
+	 */
+	List<ReportItemResponse> getReport(LocalDate fromDate, LocalDate toDate, ReportType type,
+			ReportGranularity granularity);
+
 	/**
 	 * Lấy báo cáo tổng hợp dựa trên khoảng thời gian (không phân biệt loại).
 	 *
@@ -40,4 +59,25 @@ public interface ReportService {
 	 */
 	List<EmployeeDailySalaryResponse> getEmployeeDailySalaries(LocalDate from, LocalDate to);
 
+	/**
+	 * Duyệt lương hàng ngày của nhân viên trong một khoảng thời gian dưới dạng
+	 * luồng. Các dòng chỉ được tạo khi được đọc tới, dùng cho xuất file lớn.
+	 *
+	 * @param from Ngày bắt đầu.
+	 * @param to   Ngày kết thúc.
+	 * @return Luồng phản hồi lương hàng ngày của nhân viên.
+	 */
+	Stream<EmployeeDailySalaryResponse> streamEmployeeDailySalaries(LocalDate from, LocalDate to);
+
+	/**
+	 * Lấy một trang lương hàng ngày của nhân viên trong một khoảng thời gian. Chỉ
+	 * các dòng thuộc trang được yêu cầu mới được tạo.
+	 *
+	 * @param from     Ngày bắt đầu.
+	 * @param to       Ngày kết thúc.
+	 * @param pageable Thông tin phân trang.
+	 * @return Trang phản hồi lương hàng ngày của nhân viên.
+	 */
+	Page<EmployeeDailySalaryResponse> getEmployeeDailySalaries(LocalDate from, LocalDate to, Pageable pageable);
+
 }
\ No newline at end of file
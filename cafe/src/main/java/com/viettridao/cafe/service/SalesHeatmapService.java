@@ -0,0 +1,29 @@
+package com.viettridao.cafe.service;
+
+import java.time.LocalDate;
+
+import com.viettridao.cafe.dto.response.reportstatistics.SalesHeatmapResponse;
+
+/**
+ * Giao diện dịch vụ thống kê doanh thu theo thứ trong tuần và giờ trong ngày
+ * (dùng để sắp xếp ca làm theo giờ cao điểm).
+ */
+public interface SalesHeatmapService {
+
+	/**
+	 * Lấy bảng nhiệt 7 x 24 của số hóa đơn và doanh thu trong khoảng thời gian.
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 * @return bảng nhiệt theo thứ và giờ
+	 */
+	SalesHeatmapResponse getHeatmap(LocalDate from, LocalDate to);
+
+	/**
+	 * Xóa số liệu đã lưu của tuần chứa ngày có hóa đơn vừa được thanh toán.
+	 * Nếu đang trong giao dịch, số liệu được xóa thêm sau khi giao dịch kết thúc.
+	 *
+	 * @param date ngày có thay đổi
+	 */
+	void evict(LocalDate date);
+}
@@ -0,0 +1,50 @@
+package com.viettridao.cafe.service;
+
+import java.util.List;
+
+import com.viettridao.cafe.model.MenuItemEntity;
+import com.viettridao.cafe.model.ProductEntity;
+
+/**
+ * Interface định nghĩa chỉ mục tìm kiếm theo tên (không phân biệt hoa thường và
+ * dấu tiếng Việt) cho sản phẩm và món, giữ trong bộ nhớ.
+ */
+public interface SearchIndexService {
+
+	/**
+	 * Tìm sản phẩm chưa bị xóa có tên chứa từ khóa ("ca phe" khớp "Cà phê").
+	 *
+	 * @param keyword từ khóa
+	 * @return id sản phẩm, sắp xếp theo tên
+	 */
+	List<Integer> searchProducts(String keyword);
+
+	/**
+	 * Tìm món chưa bị xóa có tên chứa từ khóa ("ca phe" khớp "Cà phê").
+	 *
+	 * @param keyword từ khóa
+	 * @return id món, sắp xếp theo tên
+	 */
+	List<Integer> searchMenuItems(String keyword);
+
+	/**
+	 * Cập nhật chỉ mục sau khi sản phẩm được thêm, sửa tên hoặc xóa. Gọi trong giao
+	 * dịch; chỉ mục chỉ thay đổi khi giao dịch commit.
+	 *
+	 * @param product sản phẩm
+	 */
+	void onProductChanged(ProductEntity product);
+
+	/**
+	 * Cập nhật chỉ mục sau khi món được thêm, sửa tên hoặc xóa. Gọi trong giao dịch;
+	 * chỉ mục chỉ thay đổi khi giao dịch commit.
+	 *
+	 * @param menuItem món
+	 */
+	void onMenuItemChanged(MenuItemEntity menuItem);
+
+	/**
+	 * Dựng lại chỉ mục từ CSDL.
+	 */
+	void rebuild();
+}
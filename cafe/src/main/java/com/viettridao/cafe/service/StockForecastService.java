@@ -0,0 +1,48 @@
+package com.viettridao.cafe.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.viettridao.cafe.common.StockMovementType;
+import com.viettridao.cafe.dto.response.product.StockForecastResponse;
+import com.viettridao.cafe.model.ProductEntity;
+
+/**
+ * Interface định nghĩa các phương thức dự báo ngày hết hàng theo lượng dùng mỗi
+ * ngày (trung bình trượt hàm mũ), giữ trong bộ nhớ và cập nhật theo từng biến
+ * động tồn kho.
+ */
+public interface StockForecastService {
+
+	/**
+	 * Ghi nhận một biến động tồn kho. Xuất và tiêu hao được cộng vào lượng dùng của
+	 * ngày phát sinh; mọi biến động cập nhật số dư. Gọi trong giao dịch, chỉ áp
+	 * dụng khi giao dịch commit.
+	 *
+	 * @param productId id sản phẩm
+	 * @param type      loại biến động
+	 * @param quantity  số lượng thay đổi (âm khi giảm)
+	 * @param balance   số dư sau biến động
+	 * @param date      ngày phát sinh
+	 */
+	void onMovement(Integer productId, StockMovementType type, int quantity, int balance, LocalDate date);
+
+	/**
+	 * Cập nhật tên, đơn vị của sản phẩm hoặc bỏ sản phẩm đã bị xóa khỏi dự báo.
+	 *
+	 * @param product sản phẩm
+	 */
+	void onProductChanged(ProductEntity product);
+
+	/**
+	 * Lấy dự báo của toàn bộ sản phẩm, sản phẩm sắp hết trước xếp trước.
+	 *
+	 * @return danh sách dự báo
+	 */
+	List<StockForecastResponse> getForecasts();
+
+	/**
+	 * Dựng lại dự báo từ tổng lượng dùng theo ngày trong sổ kho.
+	 */
+	void rebuild();
+}
@@ -0,0 +1,80 @@
+package com.viettridao.cafe.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import com.viettridao.cafe.common.StockMovementType;
+import com.viettridao.cafe.dto.request.product.StockMovementRequest;
+import com.viettridao.cafe.dto.response.product.StockDriftResponse;
+import com.viettridao.cafe.model.ProductEntity;
+
+/**
+ * Interface định nghĩa các phương thức của sổ kho: ghi biến động tồn kho kèm số
+ * dư, đọc tồn kho hiện tại và đối chiếu sai lệch.
+ */
+public interface StockLedgerService {
+
+	/**
+	 * Cộng số lượng vào tồn kho của sản phẩm bằng một câu lệnh UPDATE nguyên tử và
+	 * ghi một dòng sổ kho mang số dư mới, trong giao dịch của nghiệp vụ gọi tới.
+	 * Số lượng trên đối tượng product được cập nhật theo số dư mới.
+	 *
+	 * @param product     sản phẩm
+	 * @param type        loại biến động
+	 * @param quantity    số lượng thay đổi (âm khi giảm)
+	 * @param referenceId id chứng từ gốc
+	 * @param date        ngày phát sinh
+	 * @return số dư tồn kho sau biến động
+	 */
+	int record(ProductEntity product, StockMovementType type, int quantity, Integer referenceId, LocalDate date);
+
+	/**
+	 * Ghi sổ kho cho một lô biến động: tồn kho của mỗi sản phẩm được cộng bằng một
+	 * câu lệnh UPDATE trong một lô JDBC, các dòng sổ kho được chèn theo lô với số
+	 * dư lũy kế theo thứ tự trong danh sách. Nghiệp vụ gọi tới cập nhật số lượng
+	 * trên các đối tượng sản phẩm và báo cho LowStockAlertService.
+	 *
+	 * @param type      loại biến động
+	 * @param movements danh sách biến động
+	 * @return số dư tồn kho cuối cùng theo id sản phẩm
+	 */
+	Map<Integer, Integer> recordBatch(StockMovementType type, List<StockMovementRequest> movements);
+
+	/**
+	 * Trừ số lượng khỏi tồn kho nếu còn đủ hàng và ghi một dòng sổ kho. Việc kiểm
+	 * tra và trừ nằm trong một câu lệnh UPDATE có điều kiện, nên hai giao dịch
+	 * đồng thời không thể cùng trừ quá số hàng còn lại.
+	 *
+	 * @param product     sản phẩm
+	 * @param type        loại biến động (xuất hàng, tiêu hao)
+	 * @param quantity    số lượng cần trừ (dương)
+	 * @param referenceId id chứng từ gốc
+	 * @param date        ngày phát sinh
+	 * @return số dư tồn kho sau biến động
+	 * @throws RuntimeException nếu không đủ hàng
+	 */
+	int withdraw(ProductEntity product, StockMovementType type, int quantity, Integer referenceId, LocalDate date);
+
+	/**
+	 * Lấy tồn kho hiện tại từ dòng sổ kho mới nhất của sản phẩm.
+	 *
+	 * @param productId id sản phẩm
+	 * @return số lượng tồn kho hiện tại
+	 */
+	int getCurrentStock(Integer productId);
+
+	/**
+	 * Đối chiếu số dư sổ kho với số lượng trên sản phẩm và với tổng nhập trừ tổng
+	 * xuất cộng số dư đầu kỳ và các lần điều chỉnh.
+	 *
+	 * @return danh sách sản phẩm bị lệch (rỗng nếu khớp hoàn toàn)
+	 */
+	List<StockDriftResponse> reconcile();
+
+	/**
+	 * Ghi số dư đầu kỳ cho các sản phẩm chưa có sổ kho (dữ liệu có từ trước khi
+	 * thêm bảng stock_movements).
+	 */
+	void backfillOpeningBalances();
+}
@@ -0,0 +1,36 @@
+package com.viettridao.cafe.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Interface định nghĩa các phương thức xuất toàn bộ lịch sử nhập, xuất kho ra
+ * file CSV.
+ */
+public interface WarehouseHistoryService {
+
+	/**
+	 * Ghi lịch sử nhập hàng ra luồng dưới dạng CSV, từng dòng một trong khi đọc dữ
+	 * liệu.
+	 *
+	 * @param from      ngày bắt đầu (null là không giới hạn)
+	 * @param to        ngày kết thúc (null là không giới hạn)
+	 * @param productId ID sản phẩm (null là tất cả)
+	 * @param out       luồng ghi
+	 * @throws IOException nếu không ghi được ra luồng
+	 */
+	void writeImportCsv(LocalDate from, LocalDate to, Integer productId, OutputStream out) throws IOException;
+
+	/**
+	 * Ghi lịch sử xuất hàng ra luồng dưới dạng CSV, từng dòng một trong khi đọc dữ
+	 * liệu.
+	 *
+	 * @param from      ngày bắt đầu (null là không giới hạn)
+	 * @param to        ngày kết thúc (null là không giới hạn)
+	 * @param productId ID sản phẩm (null là tất cả)
+	 * @param out       luồng ghi
+	 * @throws IOException nếu không ghi được ra luồng
+	 */
+	void writeExportCsv(LocalDate from, LocalDate to, Integer productId, OutputStream out) throws IOException;
+}
@@ -1,33 +1,33 @@
 package com.viettridao.cafe.service.impl;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.viettridao.cafe.common.InvoiceStatus;
+import com.viettridao.cafe.common.LedgerEntryType;
 import com.viettridao.cafe.dto.request.expenses.BudgetFilterRequest;
 import com.viettridao.cafe.dto.request.expenses.ExpenseRequest;
+import com.viettridao.cafe.dto.response.expenses.BudgetCursorPageResponse;
 import com.viettridao.cafe.dto.response.expenses.BudgetViewResponse;
-import com.viettridao.cafe.mapper.EquipmentMapper;
 import com.viettridao.cafe.mapper.ExpenseMapper;
-import com.viettridao.cafe.mapper.IncomeMapper;
 import com.viettridao.cafe.model.AccountEntity;
-import com.viettridao.cafe.model.EquipmentEntity;
 import com.viettridao.cafe.model.ExpenseEntity;
-import com.viettridao.cafe.model.InvoiceEntity;
+import com.viettridao.cafe.model.LedgerEntryEntity;
 import com.viettridao.cafe.repository.AccountRepository;
-import com.viettridao.cafe.repository.EquipmentRepository;
 import com.viettridao.cafe.repository.ExpenseRepository;
-import com.viettridao.cafe.repository.InvoiceRepository;
+import com.viettridao.cafe.repository.LedgerEntryRepository;
 import com.viettridao.cafe.service.BudgetService;
+import com.viettridao.cafe.service.DailySummaryService;
+import com.viettridao.cafe.service.LedgerService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -36,54 +36,72 @@ import lombok.RequiredArgsConstructor;
 public class BudgetServiceImpl implements BudgetService {
 
 	private final ExpenseRepository expenseRepo;
-	private final InvoiceRepository invoiceRepo;
-	private final EquipmentRepository equipmentRepo;
+	private final LedgerEntryRepository ledgerEntryRepo;
 	private final AccountRepository accountRepo;
+	private final DailySummaryService dailySummaryService;
+	private final LedgerService ledgerService;
 
 	private final ExpenseMapper expenseMapper;
-	private final IncomeMapper incomeMapper;
-	private final EquipmentMapper equipmentMapper;
 
+	/**
+	 * Lấy một trang danh sách thu chi từ sổ thu chi. Việc sắp xếp và phân trang
+	 * được thực hiện trong cơ sở dữ liệu trên chỉ mục theo ngày.
+	 */
 	@Override
+	@Transactional(readOnly = true)
 	public Page<BudgetViewResponse> getBudgetView(BudgetFilterRequest request) {
+		PageRequest pageable = PageRequest.of(request.getPage(), request.getSize());
+		return ledgerEntryRepo.findPageBetween(request.getFromDate(), request.getToDate(), pageable)
+				.map(this::toBudgetView);
+	}
+
+	/**
+	 * Lấy một trang danh sách thu chi theo con trỏ. Con trỏ gồm (ngày, id) của bút
+	 * toán mốc và hướng đọc (sau/trước bút toán đó).
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public BudgetCursorPageResponse getBudgetViewByCursor(BudgetFilterRequest request) {
 		LocalDate from = request.getFromDate();
 		LocalDate to = request.getToDate();
+		int size = Math.max(request.getSize(), 1);
 
-		List<InvoiceEntity> invoices = invoiceRepo.findByStatusAndCreatedAtBetween(InvoiceStatus.PAID,
-				from.atStartOfDay(), to.plusDays(1).atStartOfDay());
-
-		List<ExpenseEntity> expenses = expenseRepo.findExpensesBetweenDates(from, to);
-
-		List<EquipmentEntity> equipmentList = equipmentRepo.findEquipmentsBetweenDates(from, to);
-
-		// Chuyển đổi sang DTO
-		List<BudgetViewResponse> incomeDtos = invoices.stream().map(incomeMapper::fromInvoice)
-				.collect(Collectors.toList());
-		List<BudgetViewResponse> expenseDtos = expenses.stream().map(expenseMapper::toDto).collect(Collectors.toList());
-		List<BudgetViewResponse> equipmentDtos = equipmentList.stream().map(equipmentMapper::toBudgetDto)
-				.collect(Collectors.toList());
+		// Con trỏ rỗng hoặc không hợp lệ: bắt đầu từ trước dòng đầu tiên
+		BudgetCursor cursor = BudgetCursor.decode(request.getCursor());
+		boolean first = cursor == null;
+		if (first) {
+			cursor = new BudgetCursor(true, to.plusDays(1), 0);
+		}
 
-		// Tạo danh sách duy nhất, không gộp theo ngày
-		List<BudgetViewResponse> result = new ArrayList<>();
-		result.addAll(incomeDtos);
-		result.addAll(expenseDtos);
-		result.addAll(equipmentDtos);
+		// Đọc dư một dòng để biết còn trang tiếp theo theo hướng đang đọc hay không
+		PageRequest limit = PageRequest.of(0, size + 1);
+		List<LedgerEntryEntity> rows = cursor.after
+				? ledgerEntryRepo.findAfter(from, to, cursor.date, cursor.id, limit)
+				: new ArrayList<>(ledgerEntryRepo.findBefore(from, to, cursor.date, cursor.id, limit));
 
-		// Sắp xếp giảm dần theo ngày
-		result.sort(Comparator.comparing(BudgetViewResponse::getDate).reversed());
+		boolean hasMore = rows.size() > size;
+		if (hasMore) {
+			rows = rows.subList(0, size);
+		}
+		if (!cursor.after) {
+			Collections.reverse(rows);
+		}
 
-		// Phân trang
-		int start = request.getPage() * request.getSize();
-		if (start >= result.size()) {
-			return Page.empty(PageRequest.of(request.getPage(), request.getSize()));
+		List<BudgetViewResponse> content = rows.stream().map(this::toBudgetView).toList();
+		if (rows.isEmpty()) {
+			return new BudgetCursorPageResponse(content, null, null);
 		}
-		int end = Math.min(start + request.getSize(), result.size());
-		List<BudgetViewResponse> pageContent = result.subList(start, end);
 
-		return new PageImpl<>(pageContent, PageRequest.of(request.getPage(), request.getSize()), result.size());
+		boolean hasNext = cursor.after ? hasMore : true;
+		boolean hasPrev = cursor.after ? !first : hasMore;
+		String next = hasNext ? BudgetCursor.of(true, rows.get(rows.size() - 1)).encode() : null;
+		String prev = hasPrev ? BudgetCursor.of(false, rows.get(0)).encode() : null;
+
+		return new BudgetCursorPageResponse(content, next, prev);
 	}
 
 	@Override
+	@Transactional
 	public void addExpense(ExpenseRequest request, String username) {
 		AccountEntity account = accountRepo.findByUsername(username)
 				.orElseThrow(() -> new UsernameNotFoundException("Tài khoản không tồn tại"));
@@ -92,5 +110,57 @@ public class BudgetServiceImpl implements BudgetService {
 		entity.setAccount(account);
 
 		expenseRepo.save(entity);
+
+		// Cộng chi phí vào bảng tổng hợp theo ngày và ghi sổ thu chi
+		dailySummaryService.addOtherExpense(entity.getExpenseDate(), entity.getAmount());
+		ledgerService.record(LedgerEntryType.EXPENSE, entity.getId(), entity.getExpenseDate(), entity.getAmount());
+	}
+
+	/**
+	 * Chuyển một bút toán sang DTO hiển thị: khoản thu vào cột thu, khoản chi vào
+	 * cột chi.
+	 */
+	private BudgetViewResponse toBudgetView(LedgerEntryEntity entry) {
+		boolean income = entry.getType().isIncome();
+		return new BudgetViewResponse(entry.getEntryDate(), income ? entry.getAmount() : 0.0,
+				income ? 0.0 : entry.getAmount());
+	}
+
+	/**
+	 * Con trỏ phân trang: bút toán mốc (ngày, id) và hướng đọc. Được mã hóa Base64
+	 * để truyền qua URL.
+	 */
+	private static final class BudgetCursor {
+
+		private final boolean after;
+		private final LocalDate date;
+		private final int id;
+
+		BudgetCursor(boolean after, LocalDate date, int id) {
+			this.after = after;
+			this.date = date;
+			this.id = id;
+		}
+
+		static BudgetCursor of(boolean after, LedgerEntryEntity entry) {
+			return new BudgetCursor(after, entry.getEntryDate(), entry.getId());
+		}
+
+		String encode() {
+			String raw = (after ? "A" : "B") + ":" + date + ":" + id;
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+		}
+
+		static BudgetCursor decode(String value) {
+			if (value == null || value.isBlank()) {
+				return null;
+			}
+			try {
+				String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":");
+				return new BudgetCursor("A".equals(parts[0]), LocalDate.parse(parts[1]), Integer.parseInt(parts[2]));
+			} catch (RuntimeException e) {
+				return null;
+			}
+		}
 	}
 }
@@ -0,0 +1,99 @@
+package com.viettridao.cafe.service.impl;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viettridao.cafe.dto.response.expenses.BudgetTotalsResponse;
+import com.viettridao.cafe.dto.response.expenses.LedgerDailyAmountResponse;
+import com.viettridao.cafe.repository.LedgerEntryRepository;
+import com.viettridao.cafe.service.BudgetTotalsService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai tính tổng thu chi bằng truy vấn SUM theo ngày trên sổ thu chi. Tổng của các
+ * ngày đã qua được lưu lại, nên mỗi lần xem chỉ cần truy vấn hôm nay và các
+ * ngày chưa có. Bộ nhớ chỉ giữ tối đa MAX_CLOSED_DAYS ngày được xem gần nhất.
+ */
+@Service
+@RequiredArgsConstructor
+public class BudgetTotalsServiceImpl implements BudgetTotalsService {
+
+	// Số ngày đã qua tối đa được giữ trong bộ nhớ (khoảng hai năm)
+	private static final int MAX_CLOSED_DAYS = 750;
+
+	private final LedgerEntryRepository ledgerEntryRepo;
+
+	// Tổng của các ngày đã qua: ngày -> {thu, chi}
+	private final ClosedDayCache<LocalDate, double[]> closedDays = new ClosedDayCache<>(MAX_CLOSED_DAYS);
+
+	@Override
+	@Transactional(readOnly = true)
+	public BudgetTotalsResponse getTotals(LocalDate from, LocalDate to) {
+		LocalDate today = LocalDate.now();
+		long version = closedDays.currentVersion();
+		Set<LocalDate> missing = new HashSet<>();
+		double income = 0.0;
+		double expense = 0.0;
+		LocalDate firstMissing = null;
+		LocalDate lastMissing = null;
+
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			double[] day = date.isBefore(today) ? closedDays.get(date) : null;
+			if (day != null) {
+				income += day[0];
+				expense += day[1];
+			} else {
+				missing.add(date);
+				firstMissing = firstMissing == null ? date : firstMissing;
+				lastMissing = date;
+			}
+		}
+
+		if (firstMissing != null) {
+			Map<LocalDate, double[]> loaded = loadDays(firstMissing, lastMissing);
+			for (LocalDate date = firstMissing; !date.isAfter(lastMissing); date = date.plusDays(1)) {
+				// Ngày nằm giữa đã được cộng từ bộ nhớ thì bỏ qua
+				if (!missing.contains(date)) {
+					continue;
+				}
+				double[] day = loaded.getOrDefault(date, new double[2]);
+				income += day[0];
+				expense += day[1];
+				if (date.isBefore(today)) {
+					closedDays.put(date, day, version);
+				}
+			}
+		}
+
+		return new BudgetTotalsResponse(income, expense);
+	}
+
+	@Override
+	public void evict(LocalDate date) {
+		if (date != null) {
+			closedDays.evict(date);
+		}
+	}
+
+	/**
+	 * Tính tổng thu và tổng chi theo từng ngày trong khoảng thời gian bằng một
+	 * truy vấn GROUP BY (ngày, loại) trên sổ thu chi.
+	 */
+	private Map<LocalDate, double[]> loadDays(LocalDate from, LocalDate to) {
+		Map<LocalDate, double[]> days = new HashMap<>();
+
+		for (LedgerDailyAmountResponse row : ledgerEntryRepo.sumAmountGroupByDateAndType(from, to)) {
+			double amount = row.getAmount() != null ? row.getAmount() : 0.0;
+			days.computeIfAbsent(row.getDate(), d -> new double[2])[row.getType().isIncome() ? 0 : 1] += amount;
+		}
+
+		return days;
+	}
+}
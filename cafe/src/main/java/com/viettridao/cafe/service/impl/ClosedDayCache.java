@@ -0,0 +1,116 @@
+package com.viettridao.cafe.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bộ nhớ đệm có giới hạn cho số liệu của các ngày (tuần) đã khép lại, dùng
+ * chung cho các thống kê cộng dồn theo ngày.
+ * <p>
+ * Số phần tử tối đa được giới hạn, phần tử lâu không được dùng nhất bị loại
+ * trước (LRU). Mỗi lần xóa sẽ tăng phiên bản: kết quả được tính từ dữ liệu đọc
+ * trước khi có thay đổi sẽ không được lưu lại. Khi xóa trong một giao dịch,
+ * phần tử được xóa thêm lần nữa sau khi giao dịch kết thúc, để loại bỏ kết quả
+ * được tính trong lúc dữ liệu mới chưa được commit.
+ *
+ * @param <K> khóa (ngày hoặc ngày đầu tuần)
+ * @param <V> số liệu của khóa
+ */
+class ClosedDayCache<K, V> {
+
+	private final Map<K, V> entries;
+
+	// Phiên bản, tăng sau mỗi lần xóa. Chỉ đọc/ghi khi giữ khóa entries
+	private long version;
+
+	ClosedDayCache(int maxEntries) {
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	V get(K key) {
+		synchronized (entries) {
+			return entries.get(key);
+		}
+	}
+
+	/**
+	 * Lấy phiên bản hiện tại, cần gọi trước khi đọc dữ liệu gốc để truyền lại cho
+	 * {@link #put}.
+	 */
+	long currentVersion() {
+		synchronized (entries) {
+			return version;
+		}
+	}
+
+	/**
+	 * Lưu số liệu nếu chưa có lần xóa nào xảy ra kể từ phiên bản đã lấy.
+	 */
+	void put(K key, V value, long expectedVersion) {
+		synchronized (entries) {
+			if (version == expectedVersion) {
+				entries.putIfAbsent(key, value);
+			}
+		}
+	}
+
+	/**
+	 * Xóa số liệu của khóa ngay và (nếu đang trong giao dịch) sau khi giao dịch
+	 * kết thúc.
+	 */
+	void evict(K key) {
+		evictNow(key);
+		afterCompletion(() -> evictNow(key));
+	}
+
+	/**
+	 * Xóa số liệu của mọi khóa thỏa điều kiện, ngay và (nếu đang trong giao dịch)
+	 * sau khi giao dịch kết thúc.
+	 */
+	void evictIf(Predicate<? super K> condition) {
+		evictNow(condition);
+		afterCompletion(() -> evictNow(condition));
+	}
+
+	int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private void evictNow(K key) {
+		synchronized (entries) {
+			version++;
+			entries.remove(key);
+		}
+	}
+
+	private void evictNow(Predicate<? super K> condition) {
+		synchronized (entries) {
+			version++;
+			entries.keySet().removeIf(condition);
+		}
+	}
+
+	private void afterCompletion(Runnable eviction) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					eviction.run();
+				}
+			});
+		}
+	}
+}
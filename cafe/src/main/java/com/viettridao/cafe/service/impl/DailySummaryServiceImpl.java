@@ -0,0 +1,199 @@
+package com.viettridao.cafe.service.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viettridao.cafe.dto.response.reportstatistics.DailyAmountResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.DailySummaryCheckResponse;
+import com.viettridao.cafe.model.DailySummaryEntity;
+import com.viettridao.cafe.repository.DailySummaryRepository;
+import com.viettridao.cafe.repository.ExpenseRepository;
+import com.viettridao.cafe.repository.ExportRepository;
+import com.viettridao.cafe.repository.ImportRepository;
+import com.viettridao.cafe.repository.InvoiceRepository;
+import com.viettridao.cafe.service.DailySummaryService;
+import com.viettridao.cafe.service.ReportCacheService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai bảng tổng hợp thu chi theo ngày. Các phương thức cộng dồn tham gia
+ * vào giao dịch đang chạy của nghiệp vụ gọi tới, nên bảng tổng hợp luôn được
+ * ghi cùng lúc với dữ liệu gốc.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailySummaryServiceImpl implements DailySummaryService {
+
+	// Sai số cho phép khi so sánh số thực giữa bảng tổng hợp và dữ liệu gốc
+	private static final double TOLERANCE = 0.01;
+
+	private final DailySummaryRepository dailySummaryRepository;
+	private final InvoiceRepository invoiceRepository;
+	private final ImportRepository importRepository;
+	private final ExportRepository exportRepository;
+	private final ExpenseRepository expenseRepository;
+	private final ReportCacheService reportCacheService;
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	@Transactional
+	public void addRevenue(LocalDate date, Double amount) {
+		add(date, amount, 0.0, 0.0, 0.0);
+	}
+
+	@Override
+	@Transactional
+	public void addImportCost(LocalDate date, Double amount) {
+		add(date, 0.0, amount, 0.0, 0.0);
+	}
+
+	@Override
+	@Transactional
+	public void addExportCost(LocalDate date, Double amount) {
+		add(date, 0.0, 0.0, amount, 0.0);
+	}
+
+	@Override
+	@Transactional
+	public void addOtherExpense(LocalDate date, Double amount) {
+		add(date, 0.0, 0.0, 0.0, amount);
+	}
+
+	@Override
+	public List<DailySummaryEntity> getSummaries(LocalDate from, LocalDate to) {
+		return dailySummaryRepository.findBySummaryDateBetweenOrderBySummaryDateAsc(from, to);
+	}
+
+	/**
+	 * Xóa các dòng tổng hợp trong khoảng thời gian rồi tính lại từ dữ liệu gốc,
+	 * mỗi nguồn dữ liệu chỉ cần một truy vấn GROUP BY theo ngày. Các dòng mới được
+	 * chèn theo lô bằng JDBC thay vì saveAll (saveAll với khóa tự gán phải SELECT
+	 * từng dòng để merge).
+	 */
+	@Override
+	@Transactional(isolation = Isolation.REPEATABLE_READ)
+	public int rebuild(LocalDate from, LocalDate to) {
+		Map<LocalDate, DailySummaryEntity> sources = loadFromSources(from, to);
+
+		dailySummaryRepository.deleteBySummaryDateBetween(from, to);
+		List<Object[]> rows = sources.values().stream().map(s -> new Object[] { s.getSummaryDate(), s.getRevenue(),
+				s.getImportCost(), s.getExportCost(), s.getOtherExpense() }).toList();
+		jdbcTemplate.batchUpdate("INSERT INTO daily_summary "
+				+ "(summary_date, revenue, import_cost, export_cost, other_expense) VALUES (?, ?, ?, ?, ?)", rows);
+		reportCacheService.evictRange(from, to);
+
+		return sources.size();
+	}
+
+	@Override
+	@Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+	public List<DailySummaryCheckResponse> check(LocalDate from, LocalDate to) {
+		Map<LocalDate, DailySummaryEntity> sources = loadFromSources(from, to);
+		Map<LocalDate, DailySummaryEntity> summaries = new HashMap<>();
+		for (DailySummaryEntity summary : getSummaries(from, to)) {
+			summaries.put(summary.getSummaryDate(), summary);
+		}
+
+		TreeSet<LocalDate> dates = new TreeSet<>(sources.keySet());
+		dates.addAll(summaries.keySet());
+
+		List<DailySummaryCheckResponse> mismatches = new ArrayList<>();
+		for (LocalDate date : dates) {
+			DailySummaryEntity summary = summaries.getOrDefault(date, emptySummary(date));
+			DailySummaryEntity source = sources.getOrDefault(date, emptySummary(date));
+
+			if (differs(summary.getRevenue(), source.getRevenue())
+					|| differs(summary.getImportCost(), source.getImportCost())
+					|| differs(summary.getExportCost(), source.getExportCost())
+					|| differs(summary.getOtherExpense(), source.getOtherExpense())) {
+				mismatches.add(new DailySummaryCheckResponse(date, summary.getRevenue(), source.getRevenue(),
+						summary.getImportCost(), source.getImportCost(), summary.getExportCost(),
+						source.getExportCost(), summary.getOtherExpense(), source.getOtherExpense()));
+			}
+		}
+
+		return mismatches;
+	}
+
+	/**
+	 * Cộng dồn vào dòng tổng hợp của ngày, bỏ qua nếu không có ngày hoặc số tiền.
+	 */
+	private void add(LocalDate date, Double revenue, Double importCost, Double exportCost, Double otherExpense) {
+		if (date == null) {
+			return;
+		}
+		double r = revenue != null ? revenue : 0.0;
+		double i = importCost != null ? importCost : 0.0;
+		double e = exportCost != null ? exportCost : 0.0;
+		double o = otherExpense != null ? otherExpense : 0.0;
+		if (r == 0.0 && i == 0.0 && e == 0.0 && o == 0.0) {
+			return;
+		}
+		dailySummaryRepository.addAmounts(date, r, i, e, o);
+		reportCacheService.evict(date);
+	}
+
+	/**
+	 * Tính tổng hợp theo ngày trực tiếp từ các bảng hóa đơn, nhập, xuất và chi
+	 * phí (không đọc sổ thu chi, để việc đối chiếu phát hiện được cả sai lệch của
+	 * sổ). Các truy vấn chạy tuần tự trong giao dịch của rebuild/check để cùng
+	 * đọc một ảnh dữ liệu nhất quán.
+	 */
+	private Map<LocalDate, DailySummaryEntity> loadFromSources(LocalDate from, LocalDate to) {
+		List<DailyAmountResponse> revenueRows = invoiceRepository.sumTotalAmountGroupByDate(from.atStartOfDay(),
+				to.plusDays(1).atStartOfDay());
+		List<DailyAmountResponse> importRows = importRepository.sumTotalAmountGroupByDate(from, to);
+		List<DailyAmountResponse> exportRows = exportRepository.sumTotalExportAmountGroupByDate(from, to);
+		List<DailyAmountResponse> expenseRows = expenseRepository.sumAmountGroupByDate(from, to);
+
+		Map<LocalDate, DailySummaryEntity> result = new HashMap<>();
+
+		for (DailyAmountResponse row : revenueRows) {
+			DailySummaryEntity summary = result.computeIfAbsent(row.getDate(), this::emptySummary);
+			summary.setRevenue(summary.getRevenue() + amountOf(row));
+		}
+		for (DailyAmountResponse row : importRows) {
+			DailySummaryEntity summary = result.computeIfAbsent(row.getDate(), this::emptySummary);
+			summary.setImportCost(summary.getImportCost() + amountOf(row));
+		}
+		for (DailyAmountResponse row : exportRows) {
+			DailySummaryEntity summary = result.computeIfAbsent(row.getDate(), this::emptySummary);
+			summary.setExportCost(summary.getExportCost() + amountOf(row));
+		}
+		for (DailyAmountResponse row : expenseRows) {
+			DailySummaryEntity summary = result.computeIfAbsent(row.getDate(), this::emptySummary);
+			summary.setOtherExpense(summary.getOtherExpense() + amountOf(row));
+		}
+
+		result.remove(null);
+		return result;
+	}
+
+	private DailySummaryEntity emptySummary(LocalDate date) {
+		DailySummaryEntity summary = new DailySummaryEntity();
+		summary.setSummaryDate(date);
+		summary.setRevenue(0.0);
+		summary.setImportCost(0.0);
+		summary.setExportCost(0.0);
+		summary.setOtherExpense(0.0);
+		return summary;
+	}
+
+	private double amountOf(DailyAmountResponse row) {
+		return row.getAmount() != null ? row.getAmount() : 0.0;
+	}
+
+	private boolean differs(Double a, Double b) {
+		return Math.abs((a != null ? a : 0.0) - (b != null ? b : 0.0)) > TOLERANCE;
+	}
+}
@@ -1,5 +1,6 @@
 package com.viettridao.cafe.service.impl;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -8,6 +9,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.viettridao.cafe.common.LedgerEntryType;
 import com.viettridao.cafe.dto.request.equipment.CreateEquipmentRequest;
 import com.viettridao.cafe.dto.request.equipment.UpdateEquipmentRequest;
 import com.viettridao.cafe.dto.response.equipment.EquipmentPageResponse;
@@ -15,6 +17,7 @@ import com.viettridao.cafe.mapper.EquipmentMapper;
 import com.viettridao.cafe.model.EquipmentEntity;
 import com.viettridao.cafe.repository.EquipmentRepository;
 import com.viettridao.cafe.service.EquipmentService;
+import com.viettridao.cafe.service.LedgerService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,6 +33,8 @@ public class EquipmentServiceImpl implements EquipmentService {
 
 	private final EquipmentMapper equipmentMapper;
 
+	private final LedgerService ledgerService;
+
 	/**
 	 * Lấy danh sách tất cả thiết bị chưa bị xóa (isDeleted = false)
 	 *
@@ -57,8 +62,11 @@ public class EquipmentServiceImpl implements EquipmentService {
 		equipmentEntity.setPurchasePrice(request.getPurchasePrice());
 		equipmentEntity.setIsDeleted(false); // Thiết bị mặc định chưa bị xóa
 
-		// Lưu vào database và trả về đối tượng đã lưu
-		return equipmentRepository.save(equipmentEntity);
+		// Lưu vào database, ghi sổ khoản chi mua thiết bị và trả về đối tượng đã lưu
+		EquipmentEntity saved = equipmentRepository.save(equipmentEntity);
+		ledgerService.record(LedgerEntryType.EQUIPMENT, saved.getId(), saved.getPurchaseDate(),
+				purchaseAmountOf(saved));
+		return saved;
 	}
 
 	/**
@@ -71,10 +79,15 @@ public class EquipmentServiceImpl implements EquipmentService {
 	public void deleteEquipment(Integer id) {
 		// Lấy thiết bị cần xóa, nếu không tồn tại sẽ ném exception
 		EquipmentEntity equipment = getEquipmentById(id);
+		boolean wasDeleted = Boolean.TRUE.equals(equipment.getIsDeleted());
 		equipment.setIsDeleted(true); // Đánh dấu xóa
 
-		// Lưu lại trạng thái mới
+		// Lưu lại trạng thái mới và ghi bút toán hoàn lại khoản chi (chỉ một lần)
 		equipmentRepository.save(equipment);
+		if (!wasDeleted) {
+			ledgerService.record(LedgerEntryType.EQUIPMENT, equipment.getId(), equipment.getPurchaseDate(),
+					-purchaseAmountOf(equipment));
+		}
 	}
 
 	/**
@@ -101,6 +114,10 @@ public class EquipmentServiceImpl implements EquipmentService {
 		// Lấy thiết bị cần cập nhật
 		EquipmentEntity equipmentEntity = getEquipmentById(request.getId());
 
+		// Giữ lại ngày mua và số tiền cũ để ghi bút toán điều chỉnh
+		LocalDate oldDate = equipmentEntity.getPurchaseDate();
+		double oldAmount = purchaseAmountOf(equipmentEntity);
+
 		// Gán các thông tin mới từ request
 		equipmentEntity.setEquipmentName(request.getEquipmentName());
 		equipmentEntity.setQuantity(request.getQuantity());
@@ -109,6 +126,10 @@ public class EquipmentServiceImpl implements EquipmentService {
 
 		// Lưu thiết bị sau khi cập nhật
 		equipmentRepository.save(equipmentEntity);
+		if (!Boolean.TRUE.equals(equipmentEntity.getIsDeleted())) {
+			ledgerService.adjust(LedgerEntryType.EQUIPMENT, equipmentEntity.getId(), oldDate, oldAmount,
+					equipmentEntity.getPurchaseDate(), purchaseAmountOf(equipmentEntity));
+		}
 	}
 
 	/**
@@ -139,4 +160,14 @@ public class EquipmentServiceImpl implements EquipmentService {
 
 		return equipmentPageResponse;
 	}
+
+	/**
+	 * Số tiền mua thiết bị: giá mua x số lượng (0 nếu thiếu dữ liệu).
+	 */
+	private double purchaseAmountOf(EquipmentEntity equipment) {
+		if (equipment.getPurchasePrice() == null || equipment.getQuantity() == null) {
+			return 0.0;
+		}
+		return equipment.getPurchasePrice() * equipment.getQuantity();
+	}
 }
@@ -1,5 +1,6 @@
 package com.viettridao.cafe.service.impl;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,16 +9,19 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.viettridao.cafe.common.StockMovementType;
 import com.viettridao.cafe.dto.request.export.ExportRequest;
 import com.viettridao.cafe.dto.response.exports.ExportResponse;
 import com.viettridao.cafe.mapper.ExportMapper;
 import com.viettridao.cafe.model.ExportEntity;
-import com.viettridao.cafe.model.ImportEntity;
 import com.viettridao.cafe.model.ProductEntity;
 import com.viettridao.cafe.repository.ExportRepository;
-import com.viettridao.cafe.repository.ImportRepository;
 import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.service.DailySummaryService;
 import com.viettridao.cafe.service.ExportService;
+import com.viettridao.cafe.service.InventoryCostingService;
+import com.viettridao.cafe.service.ProductSnapshotService;
+import com.viettridao.cafe.service.StockLedgerService;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -33,10 +37,16 @@ public class ExportServiceImpl implements ExportService {
 
 	private final ProductRepository productRepository;
 
-	private final ImportRepository importRepository;
-
 	private final ExportMapper exportMapper;
 
+	private final DailySummaryService dailySummaryService;
+
+	private final ProductSnapshotService productSnapshotService;
+
+	private final StockLedgerService stockLedgerService;
+
+	private final InventoryCostingService inventoryCostingService;
+
 	/**
 	 * Tạo đơn xuất hàng và trả về thông tin đơn xuất gần nhất.
 	 *
@@ -74,22 +84,21 @@ public class ExportServiceImpl implements ExportService {
 		ProductEntity product = productRepository.findByIdAndIsDeletedFalse(request.getProductId())
 				.orElseThrow(() -> new RuntimeException("Không tìm thấy sản phẩm"));
 
-		// Kiểm tra số lượng tồn kho
+		// Kiểm tra nhanh số lượng tồn kho (kiểm tra chính xác nằm ở câu lệnh trừ kho
+		// có điều kiện bên dưới)
 		if (product.getQuantity() < request.getQuantity()) {
 			throw new RuntimeException("Số lượng xuất vượt quá tồn kho");
 		}
 
-		// Lấy đơn nhập gần nhất để tính giá xuất
-		ImportEntity latestImport = importRepository.findTopByProductIdOrderByImportDateDesc(product.getId()).stream().findFirst()
-				.orElseThrow(() -> new RuntimeException("Không tìm thấy đơn nhập gần nhất cho sản phẩm"));
-
-		Double unitPrice = latestImport.getPrice(); // giá nhập làm giá xuất
+		// Sản phẩm chưa từng nhập thì không có giá vốn để tính giá xuất
+		if (product.getLastImportDate() == null || product.getLatestPrice() == null) {
+			throw new RuntimeException("Không tìm thấy đơn nhập gần nhất cho sản phẩm");
+		}
 
 		// Tạo entity từ request
 		ExportEntity entity = exportMapper.fromRequest(request);
 		entity.setIsDeleted(false); // Mặc định đơn xuất chưa bị xóa
 		entity.setProduct(product); // Gán quan hệ với sản phẩm
-		entity.setTotalExportAmount(request.getQuantity() * unitPrice); // Tính tổng tiền xuất
 
 		// Nếu có yêu cầu thêm nhân viên xuất kho thì có thể set ở đây
 		// entity.setEmployee(...);
@@ -97,8 +106,18 @@ public class ExportServiceImpl implements ExportService {
 		// Lưu đơn xuất
 		exportRepository.save(entity);
 
-		// Cập nhật lại tồn kho sau khi xuất
-		product.setQuantity(product.getQuantity() - request.getQuantity());
+		// Trừ tồn kho bằng câu lệnh UPDATE có điều kiện (ghi sổ kho), ném lỗi và hoàn
+		// tác cả đơn xuất nếu đã có giao dịch khác lấy hết hàng. Khóa dòng sản phẩm
+		// chỉ được giữ từ đây đến khi kết thúc giao dịch.
+		stockLedgerService.withdraw(product, StockMovementType.EXPORT, request.getQuantity(), entity.getId(),
+				entity.getExportDate());
+
+		// Tính tổng tiền xuất theo giá vốn bình quân (đọc khi đang giữ khóa dòng sản
+		// phẩm) và cộng vào bảng tổng hợp theo ngày
+		inventoryCostingService.lockCosts(List.of(product));
+		entity.setTotalExportAmount(inventoryCostingService.costOf(product, request.getQuantity()));
+		dailySummaryService.addExportCost(entity.getExportDate(), entity.getTotalExportAmount());
+		productSnapshotService.onExport(product, entity.getExportDate());
 		productRepository.save(product);
 	}
 
@@ -138,4 +157,20 @@ public class ExportServiceImpl implements ExportService {
 		// Trả về danh sách đơn xuất phân trang theo productId
 		return exportRepository.findByProductIdAndIsDeletedFalse(productId, pageable).map(exportMapper::toDto);
 	}
+
+	/**
+	 * Lấy lịch sử xuất hàng có phân trang và bộ lọc. Truy vấn chọn thẳng các cột hiển
+	 * thị (không nạp entity) nên không phát sinh truy vấn con cho từng dòng.
+	 *
+	 * @param from      ngày bắt đầu (null là không giới hạn)
+	 * @param to        ngày kết thúc (null là không giới hạn)
+	 * @param productId ID sản phẩm (null là tất cả)
+	 * @param page      số trang hiện tại
+	 * @param size      số bản ghi mỗi trang
+	 * @return Page<ExportResponse> - dữ liệu phân trang
+	 */
+	@Override
+	public Page<ExportResponse> getHistory(LocalDate from, LocalDate to, Integer productId, int page, int size) {
+		return exportRepository.findHistory(from, to, productId, PageRequest.of(page, size));
+	}
 }
@@ -1,13 +1,39 @@
 package com.viettridao.cafe.service.impl;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 
+import com.viettridao.cafe.common.StockMovementType;
 import com.viettridao.cafe.dto.request.imports.ImportRequest;
+import com.viettridao.cafe.dto.request.product.StockMovementRequest;
+import com.viettridao.cafe.dto.response.imports.BulkImportErrorResponse;
+import com.viettridao.cafe.dto.response.imports.BulkImportResponse;
 import com.viettridao.cafe.dto.response.imports.ImportResponse;
 import com.viettridao.cafe.mapper.ImportMapper;
 import com.viettridao.cafe.model.ImportEntity;
@@ -16,9 +42,17 @@ import com.viettridao.cafe.model.UnitEntity;
 import com.viettridao.cafe.repository.ImportRepository;
 import com.viettridao.cafe.repository.ProductRepository;
 import com.viettridao.cafe.repository.UnitRepository;
+import com.viettridao.cafe.service.DailySummaryService;
 import com.viettridao.cafe.service.ImportService;
+import com.viettridao.cafe.service.InventoryCostingService;
+import com.viettridao.cafe.service.LowStockAlertService;
+import com.viettridao.cafe.service.ProductSnapshotService;
+import com.viettridao.cafe.service.SearchIndexService;
+import com.viettridao.cafe.service.StockLedgerService;
 
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -32,6 +66,18 @@ public class ImportServiceImpl implements ImportService {
 	private final ProductRepository productRepository;
 	private final UnitRepository unitRepository;
 	private final ImportMapper importMapper;
+	private final DailySummaryService dailySummaryService;
+	private final ProductSnapshotService productSnapshotService;
+	private final StockLedgerService stockLedgerService;
+	private final InventoryCostingService inventoryCostingService;
+	private final LowStockAlertService lowStockAlertService;
+	private final SearchIndexService searchIndexService;
+	private final JdbcTemplate jdbcTemplate;
+	private final Validator validator;
+
+	// Các cột bắt buộc của file nhập hàng loạt (productId có thể bỏ trống)
+	private static final List<String> BULK_REQUIRED_COLUMNS = List.of("productName", "quantity", "unitId", "price",
+			"importDate");
 
 	/**
 	 * Xử lý tạo đơn nhập kho mới. Nếu sản phẩm chưa tồn tại sẽ tự động tạo mới.
@@ -75,7 +121,9 @@ public class ImportServiceImpl implements ImportService {
 				newProduct.setQuantity(0); // ban đầu chưa có tồn kho
 				newProduct.setIsDeleted(false);
 
-				return productRepository.save(newProduct);
+				productRepository.save(newProduct);
+				searchIndexService.onProductChanged(newProduct);
+				return newProduct;
 			});
 		}
 
@@ -89,13 +137,144 @@ public class ImportServiceImpl implements ImportService {
 		// ✅ Lưu đơn nhập
 		importRepository.save(entity);
 
-		// ✅ Cập nhật số lượng tồn kho cho sản phẩm
-		int updatedQuantity = product.getQuantity() + request.getQuantity();
-		product.setQuantity(updatedQuantity);
+		// ✅ Cộng tiền nhập vào bảng tổng hợp theo ngày
+		dailySummaryService.addImportCost(entity.getImportDate(), entity.getTotalAmount());
+
+		// ✅ Cộng tồn kho (ghi sổ kho) và cập nhật ảnh chụp nhập xuất cho sản phẩm
+		int balance = stockLedgerService.record(product, StockMovementType.IMPORT, request.getQuantity(),
+				entity.getId(), entity.getImportDate());
+		inventoryCostingService.lockCosts(List.of(product));
+		inventoryCostingService.onImport(product, balance - request.getQuantity(), request.getQuantity(),
+				entity.getPrice());
+		productSnapshotService.onImport(product, entity.getImportDate(), entity.getPrice());
 		productRepository.save(product);
 
-		// ✅ Lấy đơn nhập mới nhất và trả về
-		return importMapper.toDto(importRepository.findTopByProductIdOrderByImportDateDesc(product.getId()).get());
+		// ✅ Trả về đơn nhập vừa tạo
+		return importMapper.toDto(entity);
+	}
+
+	/**
+	 * Nhập hàng loạt từ file CSV (dòng đầu là tiêu đề: productId, productName,
+	 * quantity, unitId, price, importDate; productId có thể bỏ trống). Sản phẩm và
+	 * đơn vị được tra cứu theo lô, đơn nhập được chèn bằng một lô JDBC, tồn kho của
+	 * mỗi sản phẩm được cộng một lần. Dòng lỗi được bỏ qua và ghi vào danh sách
+	 * lỗi, các dòng hợp lệ vẫn được nhập.
+	 *
+	 * @param in nội dung file CSV (UTF-8)
+	 * @return kết quả nhập kèm danh sách lỗi theo dòng
+	 */
+	@Override
+	@Transactional
+	public BulkImportResponse bulkImport(InputStream in) throws IOException {
+		List<BulkImportErrorResponse> errors = new ArrayList<>();
+		List<BulkImportRow> rows = readBulkRows(in, errors);
+		int totalRows = rows.size() + errors.size();
+
+		// Tra cứu sản phẩm theo id và theo tên, đơn vị tính theo id, mỗi loại một truy
+		// vấn
+		Set<Integer> productIds = new HashSet<>();
+		Set<String> productNames = new HashSet<>();
+		for (BulkImportRow row : rows) {
+			if (row.request.getProductId() != null) {
+				productIds.add(row.request.getProductId());
+			} else {
+				productNames.add(normalizeName(row.request.getProductName()));
+			}
+		}
+		Map<Integer, ProductEntity> productsById = new HashMap<>();
+		productRepository.findAllById(productIds).forEach(p -> productsById.put(p.getId(), p));
+		Map<String, ProductEntity> productsByName = new HashMap<>();
+		if (!productNames.isEmpty()) {
+			productRepository.findByLowerProductNameIn(productNames)
+					.forEach(p -> productsByName.putIfAbsent(normalizeName(p.getProductName()), p));
+		}
+		Map<Integer, UnitEntity> units = new HashMap<>();
+		unitRepository.findByIsDeletedFalse().forEach(u -> units.put(u.getId(), u));
+
+		// Gán sản phẩm cho từng dòng, tạo sản phẩm mới (một lần cho mỗi tên) nếu chưa
+		// có
+		List<BulkImportRow> accepted = new ArrayList<>();
+		List<ProductEntity> createdProducts = new ArrayList<>();
+		for (BulkImportRow row : rows) {
+			ImportRequest request = row.request;
+			if (request.getProductId() != null) {
+				row.product = productsById.get(request.getProductId());
+				if (row.product == null) {
+					errors.add(new BulkImportErrorResponse(row.lineNumber,
+							"Không tìm thấy sản phẩm với ID: " + request.getProductId()));
+					continue;
+				}
+			} else {
+				String name = normalizeName(request.getProductName());
+				row.product = productsByName.get(name);
+				if (row.product == null) {
+					UnitEntity unit = units.get(request.getUnitId());
+					if (unit == null) {
+						errors.add(new BulkImportErrorResponse(row.lineNumber,
+								"Không tìm thấy đơn vị tính với ID: " + request.getUnitId()));
+						continue;
+					}
+					ProductEntity newProduct = new ProductEntity();
+					newProduct.setProductName(request.getProductName().trim());
+					newProduct.setUnit(unit);
+					newProduct.setQuantity(0); // ban đầu chưa có tồn kho
+					newProduct.setIsDeleted(false);
+					productsByName.put(name, newProduct);
+					createdProducts.add(newProduct);
+					row.product = newProduct;
+				}
+			}
+			accepted.add(row);
+		}
+		productRepository.saveAll(createdProducts);
+		productRepository.flush();
+		createdProducts.forEach(searchIndexService::onProductChanged);
+
+		if (!accepted.isEmpty()) {
+			List<Integer> importIds = insertImports(accepted);
+
+			// Cộng tồn kho và ghi sổ kho cho cả lô
+			List<StockMovementRequest> movements = new ArrayList<>(accepted.size());
+			for (int i = 0; i < accepted.size(); i++) {
+				BulkImportRow row = accepted.get(i);
+				movements.add(new StockMovementRequest(row.product.getId(), row.request.getQuantity(),
+						importIds.get(i), row.request.getImportDate()));
+			}
+			Map<Integer, Integer> balances = stockLedgerService.recordBatch(StockMovementType.IMPORT, movements);
+
+			// Cộng tiền nhập vào bảng tổng hợp theo ngày, mỗi ngày một lần
+			Map<LocalDate, Double> costByDate = new HashMap<>();
+			for (BulkImportRow row : accepted) {
+				costByDate.merge(row.request.getImportDate(), row.request.getQuantity() * row.request.getPrice(),
+						Double::sum);
+			}
+			costByDate.forEach(dailySummaryService::addImportCost);
+
+			// Cập nhật số lượng, giá vốn bình quân (theo thứ tự các dòng, bắt đầu từ tồn
+			// kho trước lô) và ảnh chụp nhập xuất của các sản phẩm
+			Map<Integer, ProductEntity> touched = new HashMap<>();
+			accepted.forEach(row -> touched.putIfAbsent(row.product.getId(), row.product));
+			inventoryCostingService.lockCosts(touched.values());
+			Map<Integer, Integer> running = new HashMap<>();
+			movements.forEach(m -> running.merge(m.getProductId(), -m.getQuantity(), Integer::sum));
+			balances.forEach((productId, balance) -> running.merge(productId, balance, Integer::sum));
+			for (BulkImportRow row : accepted) {
+				ProductEntity product = row.product;
+				int quantityBefore = running.merge(product.getId(), row.request.getQuantity(), Integer::sum)
+						- row.request.getQuantity();
+				inventoryCostingService.onImport(product, quantityBefore, row.request.getQuantity(),
+						row.request.getPrice());
+				productSnapshotService.onImport(product, row.request.getImportDate(), row.request.getPrice());
+			}
+			for (ProductEntity product : touched.values()) {
+				product.setQuantity(balances.getOrDefault(product.getId(), product.getQuantity()));
+				lowStockAlertService.onStockChanged(product);
+			}
+			productRepository.saveAll(touched.values());
+		}
+
+		errors.sort(Comparator.comparingInt(BulkImportErrorResponse::getLineNumber));
+		return new BulkImportResponse(totalRows, accepted.size(), createdProducts.size(), errors);
 	}
 
 	/**
@@ -133,4 +312,177 @@ public class ImportServiceImpl implements ImportService {
 		Pageable pageable = PageRequest.of(page, size);
 		return importRepository.findByProductIdAndIsDeletedFalse(productId, pageable).map(importMapper::toDto);
 	}
+
+	/**
+	 * Lấy lịch sử nhập hàng có phân trang và bộ lọc. Truy vấn chọn thẳng các cột hiển
+	 * thị (không nạp entity) nên không phát sinh truy vấn con cho từng dòng.
+	 *
+	 * @param from      ngày bắt đầu (null là không giới hạn)
+	 * @param to        ngày kết thúc (null là không giới hạn)
+	 * @param productId ID sản phẩm (null là tất cả)
+	 * @param page      số trang hiện tại
+	 * @param size      số bản ghi mỗi trang
+	 * @return Page<ImportResponse> - dữ liệu phân trang
+	 */
+	@Override
+	public Page<ImportResponse> getHistory(LocalDate from, LocalDate to, Integer productId, int page, int size) {
+		return importRepository.findHistory(from, to, productId, PageRequest.of(page, size));
+	}
+
+	/**
+	 * Chèn các đơn nhập bằng một lô JDBC (Hibernate không gộp lô được với khóa
+	 * IDENTITY) và trả về id đã sinh theo đúng thứ tự các dòng.
+	 */
+	private List<Integer> insertImports(List<BulkImportRow> rows) {
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		jdbcTemplate.batchUpdate(
+				con -> con.prepareStatement("INSERT INTO imports "
+						+ "(import_date, total_amount, price, quantity, is_deleted, product_id) VALUES (?, ?, ?, ?, ?, ?)",
+						Statement.RETURN_GENERATED_KEYS),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						ImportRequest request = rows.get(i).request;
+						ps.setObject(1, request.getImportDate());
+						ps.setDouble(2, request.getQuantity() * request.getPrice());
+						ps.setDouble(3, request.getPrice());
+						ps.setInt(4, request.getQuantity());
+						ps.setBoolean(5, false);
+						ps.setInt(6, rows.get(i).product.getId());
+					}
+
+					@Override
+					public int getBatchSize() {
+						return rows.size();
+					}
+				}, keyHolder);
+
+		return keyHolder.getKeyList().stream().map(keys -> ((Number) keys.values().iterator().next()).intValue())
+				.toList();
+	}
+
+	/**
+	 * Đọc file CSV thành các yêu cầu nhập. Dòng không đọc được hoặc không hợp lệ
+	 * được ghi vào danh sách lỗi.
+	 */
+	private List<BulkImportRow> readBulkRows(InputStream in, List<BulkImportErrorResponse> errors)
+			throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String headerLine = reader.readLine();
+		if (headerLine == null) {
+			throw new IllegalArgumentException("File không có dữ liệu.");
+		}
+		headerLine = headerLine.replace("\uFEFF", "");
+		char delimiter = headerLine.indexOf(',') < 0 && headerLine.indexOf(';') >= 0 ? ';' : ',';
+
+		Map<String, Integer> columns = new HashMap<>();
+		List<String> header = parseCsvLine(headerLine, delimiter);
+		for (int i = 0; i < header.size(); i++) {
+			columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+		}
+		List<String> missing = BULK_REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c.toLowerCase(Locale.ROOT)))
+				.toList();
+		if (!missing.isEmpty()) {
+			throw new IllegalArgumentException("File thiếu cột: " + String.join(", ", missing));
+		}
+
+		List<BulkImportRow> rows = new ArrayList<>();
+		String line;
+		int lineNumber = 1;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank()) {
+				continue;
+			}
+			List<String> fields = parseCsvLine(line, delimiter);
+			ImportRequest request = new ImportRequest();
+			try {
+				request.setProductId(parseInteger(field(fields, columns, "productid")));
+				request.setProductName(field(fields, columns, "productname"));
+				request.setQuantity(parseInteger(field(fields, columns, "quantity")));
+				request.setUnitId(parseInteger(field(fields, columns, "unitid")));
+				String price = field(fields, columns, "price");
+				request.setPrice(price != null ? Double.valueOf(price) : null);
+				String importDate = field(fields, columns, "importdate");
+				request.setImportDate(importDate != null ? LocalDate.parse(importDate) : null);
+			} catch (NumberFormatException | DateTimeParseException e) {
+				errors.add(new BulkImportErrorResponse(lineNumber, "Sai định dạng số hoặc ngày (yyyy-MM-dd)."));
+				continue;
+			}
+
+			Set<ConstraintViolation<ImportRequest>> violations = validator.validate(request);
+			if (!violations.isEmpty()) {
+				errors.add(new BulkImportErrorResponse(lineNumber, violations.stream()
+						.map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "))));
+				continue;
+			}
+			rows.add(new BulkImportRow(lineNumber, request));
+		}
+		return rows;
+	}
+
+	private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+		Integer index = columns.get(name);
+		if (index == null || index >= fields.size()) {
+			return null;
+		}
+		String value = fields.get(index).trim();
+		return value.isEmpty() ? null : value;
+	}
+
+	private static Integer parseInteger(String value) {
+		return value != null ? Integer.valueOf(value) : null;
+	}
+
+	private static String normalizeName(String name) {
+		return name.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Tách một dòng CSV thành các trường, hỗ trợ trường đặt trong dấu nháy kép
+	 * ("" là một dấu nháy trong trường).
+	 */
+	private static List<String> parseCsvLine(String line, char delimiter) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					current.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					current.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == delimiter) {
+				fields.add(current.toString());
+				current.setLength(0);
+			} else {
+				current.append(c);
+			}
+		}
+		fields.add(current.toString());
+		return fields;
+	}
+
+	/**
+	 * Một dòng hợp lệ của file nhập hàng loạt và sản phẩm tương ứng (được gán sau
+	 * khi tra cứu).
+	 */
+	private static final class BulkImportRow {
+
+		private final int lineNumber;
+		private final ImportRequest request;
+		private ProductEntity product;
+
+		BulkImportRow(int lineNumber, ImportRequest request) {
+			this.lineNumber = lineNumber;
+			this.request = request;
+		}
+	}
 }
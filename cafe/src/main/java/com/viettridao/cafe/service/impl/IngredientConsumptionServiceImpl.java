@@ -0,0 +1,192 @@
+package com.viettridao.cafe.service.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viettridao.cafe.common.StockMovementType;
+import com.viettridao.cafe.dto.request.product.StockMovementRequest;
+import com.viettridao.cafe.model.InvoiceDetailEntity;
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.service.DailySummaryService;
+import com.viettridao.cafe.service.IngredientConsumptionService;
+import com.viettridao.cafe.service.InventoryCostingService;
+import com.viettridao.cafe.service.LowStockAlertService;
+import com.viettridao.cafe.service.ProductSnapshotService;
+import com.viettridao.cafe.service.RecipeService;
+import com.viettridao.cafe.service.StockLedgerService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai trừ nguyên liệu theo công thức. Số truy vấn không phụ thuộc số món
+ * trên hóa đơn: công thức lấy từ bộ nhớ đệm, sản phẩm được nạp một lần, đơn
+ * xuất và sổ kho được ghi theo lô. Tồn kho lưu theo số nguyên, phần định lượng
+ * lẻ được cộng dồn trên từng sản phẩm và chỉ trừ khi đủ một đơn vị, nên tổng đã
+ * trừ luôn khớp với tổng định lượng thực tế (sai lệch dưới một đơn vị).
+ */
+@Service
+@RequiredArgsConstructor
+public class IngredientConsumptionServiceImpl implements IngredientConsumptionService {
+
+	// Sai số số thực cho phép khi tách phần nguyên của định lượng cộng dồn
+	private static final double EPSILON = 1e-9;
+
+	private final RecipeService recipeService;
+	private final ProductRepository productRepository;
+	private final StockLedgerService stockLedgerService;
+	private final InventoryCostingService inventoryCostingService;
+	private final ProductSnapshotService productSnapshotService;
+	private final LowStockAlertService lowStockAlertService;
+	private final DailySummaryService dailySummaryService;
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	@Transactional
+	public int consume(Integer invoiceId, List<InvoiceDetailEntity> items, LocalDate date) {
+		LocalDate exportDate = date != null ? date : LocalDate.now();
+
+		// Gộp định lượng theo sản phẩm: số phần x định lượng một phần, cộng qua mọi món
+		List<Integer> menuItemIds = items.stream().filter(i -> i.getMenuItem() != null)
+				.map(i -> i.getMenuItem().getId()).filter(Objects::nonNull).distinct().toList();
+		Map<Integer, Map<Integer, Double>> recipes = recipeService.getRecipes(menuItemIds);
+		Map<Integer, Double> required = new TreeMap<>();
+		for (InvoiceDetailEntity item : items) {
+			if (item.getMenuItem() == null || item.getQuantity() == null) {
+				continue;
+			}
+			recipes.getOrDefault(item.getMenuItem().getId(), Map.of()).forEach(
+					(productId, perServing) -> required.merge(productId, perServing * item.getQuantity(), Double::sum));
+		}
+
+		if (required.isEmpty()) {
+			return 0;
+		}
+
+		// Nạp sản phẩm và khóa theo thứ tự id để định giá xuất theo giá vốn bình quân
+		// và cộng dồn phần định lượng lẻ
+		List<ProductEntity> products = productRepository.findAllById(required.keySet()).stream()
+				.sorted(Comparator.comparing(ProductEntity::getId)).toList();
+		inventoryCostingService.lockCosts(products);
+		Map<Integer, Double> remainders = new TreeMap<>();
+		for (Object[] row : productRepository.findConsumptionRemaindersForUpdate(required.keySet())) {
+			remainders.put(((Number) row[0]).intValue(), row[1] != null ? ((Number) row[1]).doubleValue() : 0.0);
+		}
+
+		// Chỉ trừ phần nguyên của (phần lẻ còn lại + định lượng lần này), phần lẻ mới
+		// được giữ lại cho lần sau
+		List<ExportRow> rows = new ArrayList<>(products.size());
+		for (ProductEntity product : products) {
+			double total = remainders.getOrDefault(product.getId(), 0.0) + required.get(product.getId());
+			int quantity = (int) Math.floor(total + EPSILON);
+			remainders.put(product.getId(), Math.max(total - quantity, 0.0));
+			if (quantity <= 0) {
+				continue;
+			}
+			double amount = product.getAverageCost() != null || product.getLatestPrice() != null
+					? inventoryCostingService.costOf(product, quantity)
+					: 0.0;
+			rows.add(new ExportRow(product, quantity, amount));
+		}
+		updateRemainders(remainders);
+		if (rows.isEmpty()) {
+			return 0;
+		}
+		List<Integer> exportIds = insertExports(rows, exportDate);
+
+		// Trừ tồn kho và ghi sổ kho cho cả lô. Hàng đã được phục vụ nên không chặn
+		// thanh toán khi tồn kho ghi nhận không đủ; tồn kho âm sẽ hiện trong đối soát
+		List<StockMovementRequest> movements = new ArrayList<>(rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			ExportRow row = rows.get(i);
+			movements.add(new StockMovementRequest(row.product.getId(), -row.quantity, exportIds.get(i), exportDate));
+		}
+		Map<Integer, Integer> balances = stockLedgerService.recordBatch(StockMovementType.CONSUMPTION, movements);
+
+		double totalCost = 0;
+		for (ExportRow row : rows) {
+			ProductEntity product = row.product;
+			product.setQuantity(balances.getOrDefault(product.getId(), product.getQuantity()));
+			productSnapshotService.onExport(product, exportDate);
+			lowStockAlertService.onStockChanged(product);
+			totalCost += row.amount;
+		}
+		productRepository.saveAll(products);
+		dailySummaryService.addExportCost(exportDate, totalCost);
+
+		return rows.size();
+	}
+
+	/**
+	 * Ghi phần định lượng lẻ mới bằng một lô JDBC. Không ghi qua entity: sản phẩm
+	 * được nạp trước khi khóa dòng, với @DynamicUpdate Hibernate sẽ bỏ qua cột nếu
+	 * giá trị mới trùng ảnh chụp cũ, trong khi dòng đã bị giao dịch khác sửa.
+	 */
+	private void updateRemainders(Map<Integer, Double> remainders) {
+		List<Object[]> args = new ArrayList<>(remainders.size());
+		remainders.forEach((productId, remainder) -> args.add(new Object[] { remainder, productId }));
+		jdbcTemplate.batchUpdate("UPDATE products SET consumption_remainder = ? WHERE product_id = ?", args);
+	}
+
+	/**
+	 * Chèn các đơn xuất nguyên liệu bằng một lô JDBC và trả về id đã sinh theo đúng
+	 * thứ tự các dòng.
+	 */
+	private List<Integer> insertExports(List<ExportRow> rows, LocalDate exportDate) {
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		jdbcTemplate.batchUpdate(
+				con -> con.prepareStatement("INSERT INTO exports "
+						+ "(total_export_amount, export_date, quantity, is_deleted, product_id) VALUES (?, ?, ?, ?, ?)",
+						Statement.RETURN_GENERATED_KEYS),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						ExportRow row = rows.get(i);
+						ps.setDouble(1, row.amount);
+						ps.setObject(2, exportDate);
+						ps.setInt(3, row.quantity);
+						ps.setBoolean(4, false);
+						ps.setInt(5, row.product.getId());
+					}
+
+					@Override
+					public int getBatchSize() {
+						return rows.size();
+					}
+				}, keyHolder);
+
+		return keyHolder.getKeyList().stream().map(keys -> ((Number) keys.values().iterator().next()).intValue())
+				.toList();
+	}
+
+	/**
+	 * Một đơn xuất nguyên liệu: sản phẩm, số lượng đã làm tròn và giá vốn.
+	 */
+	private static final class ExportRow {
+
+		private final ProductEntity product;
+		private final int quantity;
+		private final double amount;
+
+		ExportRow(ProductEntity product, int quantity, double amount) {
+			this.product = product;
+			this.quantity = quantity;
+			this.amount = amount;
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package com.viettridao.cafe.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.service.InventoryCostingService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai giá vốn bình quân gia quyền di động. Mỗi sản phẩm chỉ cần một giá
+ * trị (cột average_cost), nên định giá một lần xuất không phải đọc lại lịch sử
+ * nhập. Giá vốn được đọc bằng truy vấn khóa dòng sau câu lệnh cập nhật tồn kho,
+ * nên các giao dịch nhập xuất đồng thời luôn tính trên giá trị mới nhất.
+ * <p>
+ * Việc tính lại giá vốn phát lại sổ kho (stock_movements) theo đúng thứ tự ghi
+ * sổ, với cùng công thức và cùng số lượng tồn trước khi nhập như lúc nhập hàng,
+ * nên kết quả phát lại trùng với kết quả cập nhật từng lần.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryCostingServiceImpl implements InventoryCostingService {
+
+	// Số sản phẩm được ghi lại trong một lô khi phát lại lịch sử
+	private static final int REPLAY_BATCH_SIZE = 500;
+
+	private final ProductRepository productRepository;
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	@Transactional
+	public void lockCosts(Collection<ProductEntity> products) {
+		if (products.isEmpty()) {
+			return;
+		}
+
+		Map<Integer, ProductEntity> byId = new HashMap<>();
+		products.forEach(p -> byId.put(p.getId(), p));
+		for (Object[] row : productRepository.findAverageCostsForUpdate(byId.keySet())) {
+			ProductEntity product = byId.get(((Number) row[0]).intValue());
+			product.setAverageCost(row[1] != null ? ((Number) row[1]).doubleValue() : null);
+		}
+	}
+
+	@Override
+	public void onImport(ProductEntity product, int quantityBefore, int quantity, Double price) {
+		if (price != null) {
+			product.setAverageCost(movingAverage(product.getAverageCost(), quantityBefore, quantity, price));
+		}
+	}
+
+	@Override
+	public double costOf(ProductEntity product, int quantity) {
+		Double unitCost = product.getAverageCost() != null ? product.getAverageCost() : product.getLatestPrice();
+		if (unitCost == null) {
+			throw new RuntimeException("Không tìm thấy giá vốn cho sản phẩm");
+		}
+		return quantity * unitCost;
+	}
+
+	@Override
+	@Transactional
+	public int replayAll() {
+		// Chỉ ghi lại giá vốn của các sản phẩm có sổ kho, không xóa trắng cả bảng
+		List<Object[]> updates = new ArrayList<>();
+		int products = replay("", new Object[0], (productId, cost) -> {
+			updates.add(new Object[] { cost, productId });
+			if (updates.size() >= REPLAY_BATCH_SIZE) {
+				writeCosts(updates);
+			}
+		});
+		writeCosts(updates);
+		return products;
+	}
+
+	@Override
+	@Transactional
+	public void replay(ProductEntity product) {
+		// Đẩy các thay đổi đang chờ xuống trước khi đọc lịch sử bằng truy vấn SQL
+		productRepository.flush();
+		product.setAverageCost(null);
+		replay("WHERE m.product_id = ?", new Object[] { product.getId() },
+				(productId, cost) -> product.setAverageCost(cost));
+	}
+
+	/**
+	 * Phát lại sổ kho theo từng sản phẩm, theo thứ tự ghi sổ. Mỗi dòng nhập (và
+	 * số dư đầu kỳ) được tính như onImport với số lượng tồn trước đó là số dư của
+	 * dòng trừ số lượng của dòng; các dòng xuất, tiêu hao, điều chỉnh chỉ thay đổi
+	 * tồn kho nên không làm đổi giá vốn. Đơn giá nhập lấy từ đơn nhập chưa bị xóa;
+	 * số dư đầu kỳ được định giá bằng bình quân các đơn nhập có từ trước khi ghi sổ
+	 * kho. Giá vốn cuối cùng của mỗi sản phẩm được chuyển cho sink.
+	 *
+	 * @return số sản phẩm đã được tính lại
+	 */
+	private int replay(String productFilter, Object[] args, BiConsumer<Integer, Double> sink) {
+		ReplayState state = new ReplayState(sink);
+		jdbcTemplate.query("""
+				SELECT m.product_id, m.quantity, m.balance,
+					CASE WHEN m.type = 'OPENING' THEN (
+						SELECT SUM(o.quantity * o.price) / NULLIF(SUM(o.quantity), 0)
+						FROM imports o
+						WHERE o.product_id = m.product_id AND o.is_deleted = false AND o.price IS NOT NULL
+							AND NOT EXISTS (SELECT 1 FROM stock_movements s
+								WHERE s.type = 'IMPORT' AND s.reference_id = o.imports_id)
+					) ELSE i.price END AS price
+				FROM stock_movements m
+				LEFT JOIN imports i ON m.type = 'IMPORT' AND i.imports_id = m.reference_id AND i.is_deleted = false
+				""" + productFilter + """
+
+				ORDER BY m.product_id, m.stock_movement_id
+				""", rs -> {
+			int productId = rs.getInt(1);
+			if (state.productId == null || state.productId != productId) {
+				state.flush();
+				state.reset(productId);
+			}
+
+			int quantity = rs.getInt(2);
+			int balance = rs.getInt(3);
+			double price = rs.getDouble(4);
+			if (!rs.wasNull()) {
+				state.cost = movingAverage(state.cost, balance - quantity, quantity, price);
+			}
+		}, args);
+		state.flush();
+		return state.products;
+	}
+
+	/**
+	 * Chạy khi ứng dụng khởi động xong, sau khi đã ghi số dư đầu kỳ cho sổ kho:
+	 * tính giá vốn cho dữ liệu có từ trước khi thêm cột giá vốn.
+	 */
+	@Transactional
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@EventListener(ApplicationReadyEvent.class)
+	public void replayMissing() {
+		if (productRepository.existsMissingAverageCost()) {
+			replayAll();
+		}
+	}
+
+	private void writeCosts(List<Object[]> updates) {
+		if (!updates.isEmpty()) {
+			jdbcTemplate.batchUpdate("UPDATE products SET average_cost = ? WHERE product_id = ?", updates);
+			updates.clear();
+		}
+	}
+
+	/**
+	 * Giá vốn bình quân sau khi nhập thêm: (tồn cũ x giá vốn cũ + số lượng nhập x
+	 * giá nhập) / tổng số lượng. Hết hàng hoặc chưa có giá vốn thì lấy giá nhập.
+	 */
+	private static double movingAverage(Double currentCost, int quantityBefore, int quantity, double price) {
+		if (currentCost == null || quantityBefore <= 0) {
+			return price;
+		}
+		if (quantity <= 0) {
+			return currentCost;
+		}
+		return (quantityBefore * currentCost + quantity * price) / (quantityBefore + quantity);
+	}
+
+	/**
+	 * Trạng thái phát lại của sản phẩm đang xét.
+	 */
+	private static final class ReplayState {
+
+		private final BiConsumer<Integer, Double> sink;
+		private Integer productId;
+		private Double cost;
+		private int products;
+
+		ReplayState(BiConsumer<Integer, Double> sink) {
+			this.sink = sink;
+		}
+
+		void reset(int productId) {
+			this.productId = productId;
+			this.cost = null;
+		}
+
+		void flush() {
+			if (productId != null) {
+				sink.accept(productId, cost);
+				products++;
+			}
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.viettridao.cafe.service.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viettridao.cafe.dto.response.reportstatistics.ItemDailySalesResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.ItemSalesResponse;
+import com.viettridao.cafe.repository.InvoiceItemDetailRepository;
+import com.viettridao.cafe.service.ItemAnalyticsService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai thống kê món bán chạy. Số liệu theo ngày và món được lấy bằng một
+ * truy vấn gộp duy nhất trên chi tiết hóa đơn, các ngày đã qua được lưu trong
+ * bộ nhớ nên lần xem sau chỉ cần truy vấn những ngày còn thiếu và hôm nay. Bộ
+ * nhớ chỉ giữ tối đa MAX_CLOSED_DAYS ngày được xem gần nhất.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemAnalyticsServiceImpl implements ItemAnalyticsService {
+
+	// Số ngày đã qua tối đa được giữ trong bộ nhớ (khoảng hơn một năm)
+	private static final int MAX_CLOSED_DAYS = 400;
+
+	private final InvoiceItemDetailRepository invoiceItemDetailRepository;
+
+	// Số liệu theo món của các ngày đã qua: ngày -> (mã món -> số liệu)
+	private final ClosedDayCache<LocalDate, Map<Integer, ItemSalesResponse>> closedDays = new ClosedDayCache<>(
+			MAX_CLOSED_DAYS);
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ItemSalesResponse> getTopByQuantity(LocalDate from, LocalDate to, int limit) {
+		return top(aggregate(from, to), Comparator.comparing(ItemSalesResponse::getQuantity), limit);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ItemSalesResponse> getTopByRevenue(LocalDate from, LocalDate to, int limit) {
+		return top(aggregate(from, to), Comparator.comparing(ItemSalesResponse::getRevenue), limit);
+	}
+
+	@Override
+	public void evict(LocalDate date) {
+		if (date != null) {
+			closedDays.evict(date);
+		}
+	}
+
+	/**
+	 * Cộng dồn số liệu theo món của cả khoảng thời gian. Các ngày chưa có trong bộ
+	 * nhớ (và hôm nay) được lấy bằng một truy vấn trải từ ngày thiếu đầu tiên đến
+	 * ngày thiếu cuối cùng.
+	 */
+	private Collection<ItemSalesResponse> aggregate(LocalDate from, LocalDate to) {
+		LocalDate today = LocalDate.now();
+		long version = closedDays.currentVersion();
+		Map<Integer, ItemSalesResponse> totals = new HashMap<>();
+		Set<LocalDate> missing = new HashSet<>();
+		LocalDate firstMissing = null;
+		LocalDate lastMissing = null;
+
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			Map<Integer, ItemSalesResponse> day = date.isBefore(today) ? closedDays.get(date) : null;
+			if (day != null) {
+				day.values().forEach(item -> add(totals, item.getMenuItemId(), item.getItemName(),
+						item.getQuantity(), item.getRevenue()));
+			} else {
+				missing.add(date);
+				firstMissing = firstMissing == null ? date : firstMissing;
+				lastMissing = date;
+			}
+		}
+
+		if (firstMissing == null) {
+			return totals.values();
+		}
+
+		Map<LocalDate, Map<Integer, ItemSalesResponse>> loaded = new HashMap<>();
+		for (ItemDailySalesResponse row : invoiceItemDetailRepository
+				.sumSalesGroupByDateAndItem(firstMissing.atStartOfDay(), lastMissing.plusDays(1).atStartOfDay())) {
+			// Bỏ qua các ngày nằm giữa đã được lấy từ bộ nhớ
+			if (!missing.contains(row.getDate())) {
+				continue;
+			}
+			add(totals, row.getMenuItemId(), row.getItemName(), row.getQuantity(), row.getRevenue());
+			add(loaded.computeIfAbsent(row.getDate(), d -> new HashMap<>()), row.getMenuItemId(), row.getItemName(),
+					row.getQuantity(), row.getRevenue());
+		}
+
+		// Chỉ lưu lại các ngày đã qua, hôm nay vẫn còn phát sinh hóa đơn
+		for (LocalDate date : missing) {
+			if (date.isBefore(today)) {
+				closedDays.put(date, loaded.getOrDefault(date, Map.of()), version);
+			}
+		}
+
+		return totals.values();
+	}
+
+	private void add(Map<Integer, ItemSalesResponse> totals, Integer menuItemId, String itemName, Long quantity,
+			Double revenue) {
+		ItemSalesResponse item = totals.computeIfAbsent(menuItemId,
+				id -> new ItemSalesResponse(id, itemName, 0L, 0.0));
+		item.setQuantity(item.getQuantity() + (quantity != null ? quantity : 0L));
+		item.setRevenue(item.getRevenue() + (revenue != null ? revenue : 0.0));
+	}
+
+	private List<ItemSalesResponse> top(Collection<ItemSalesResponse> items, Comparator<ItemSalesResponse> order,
+			int limit) {
+		List<ItemSalesResponse> result = new ArrayList<>(items);
+		result.sort(order.reversed());
+		return result.subList(0, Math.min(Math.max(limit, 0), result.size()));
+	}
+}
@@ -0,0 +1,105 @@
+package com.viettridao.cafe.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viettridao.cafe.common.InvoiceStatus;
+import com.viettridao.cafe.common.LedgerEntryType;
+import com.viettridao.cafe.model.InvoiceEntity;
+import com.viettridao.cafe.model.LedgerEntryEntity;
+import com.viettridao.cafe.repository.DataMigrationRepository;
+import com.viettridao.cafe.repository.LedgerEntryRepository;
+import com.viettridao.cafe.service.BudgetTotalsService;
+import com.viettridao.cafe.service.LedgerService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai ghi sổ thu chi. Mỗi bút toán được thêm trong cùng giao dịch với
+ * nghiệp vụ gốc (thanh toán, thêm chi tiêu, thiết bị), nên sổ luôn khớp với dữ
+ * liệu gốc.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerServiceImpl implements LedgerService {
+
+	// Tên bước ghi sổ cho dữ liệu có sẵn trong bảng data_migrations
+	static final String BACKFILL_MIGRATION = "ledger_entries_backfill";
+
+	// Chênh lệch nhỏ hơn mức này (do làm tròn số thực) thì không ghi bút toán
+	private static final double TOLERANCE = 0.005;
+
+	private final LedgerEntryRepository ledgerEntryRepository;
+	private final DataMigrationRepository dataMigrationRepository;
+	private final BudgetTotalsService budgetTotalsService;
+
+	@Override
+	@Transactional
+	public void record(LedgerEntryType type, Integer referenceId, LocalDate date, Double amount) {
+		if (date == null || amount == null || amount == 0.0) {
+			return;
+		}
+
+		LedgerEntryEntity entry = new LedgerEntryEntity();
+		entry.setEntryDate(date);
+		entry.setType(type);
+		entry.setAmount(amount);
+		entry.setReferenceId(referenceId);
+		entry.setCreatedAt(LocalDateTime.now());
+		ledgerEntryRepository.save(entry);
+
+		budgetTotalsService.evict(date);
+	}
+
+	@Override
+	@Transactional
+	public void adjust(LedgerEntryType type, Integer referenceId, LocalDate oldDate, Double oldAmount,
+			LocalDate newDate, Double newAmount) {
+		double before = oldAmount != null ? oldAmount : 0.0;
+		double after = newAmount != null ? newAmount : 0.0;
+
+		if (Objects.equals(oldDate, newDate)) {
+			record(type, referenceId, newDate, after - before);
+		} else {
+			record(type, referenceId, oldDate, -before);
+			record(type, referenceId, newDate, after);
+		}
+	}
+
+	@Override
+	@Transactional
+	public void syncInvoice(InvoiceEntity invoice) {
+		if (invoice == null || invoice.getId() == null || invoice.getCreatedAt() == null) {
+			return;
+		}
+
+		double target = invoice.getStatus() == InvoiceStatus.PAID && !Boolean.TRUE.equals(invoice.getIsDeleted())
+				&& invoice.getTotalAmount() != null ? invoice.getTotalAmount() : 0.0;
+		double posted = ledgerEntryRepository.sumAmountByTypeAndReferenceId(LedgerEntryType.INVOICE,
+				invoice.getId());
+
+		if (Math.abs(target - posted) >= TOLERANCE) {
+			record(LedgerEntryType.INVOICE, invoice.getId(), invoice.getCreatedAt().toLocalDate(), target - posted);
+		}
+	}
+
+	/**
+	 * Chạy khi ứng dụng khởi động xong. Việc đánh dấu và ghi sổ nằm trong cùng
+	 * giao dịch: chỉ tiến trình đánh dấu được (INSERT IGNORE trả về 1) mới ghi sổ,
+	 * lỗi giữa chừng thì cả hai cùng được hoàn tác để lần khởi động sau chạy lại.
+	 */
+	@Override
+	@Transactional
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillOnce() {
+		if (dataMigrationRepository.markApplied(BACKFILL_MIGRATION) == 1) {
+			ledgerEntryRepository.backfillFromSources();
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.viettridao.cafe.service.impl;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.viettridao.cafe.dto.response.product.LowStockAlertResponse;
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.service.LowStockAlertService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai bảng chỉ mục cảnh báo sắp hết hàng. Bảng chỉ chứa các sản phẩm
+ * đang dưới ngưỡng nên việc đọc chỉ tốn thời gian theo số cảnh báo. Mỗi thay
+ * đổi được đánh số thứ tự ngay khi giao dịch đang giữ khóa dòng sản phẩm và chỉ
+ * áp dụng sau khi commit, bỏ qua thay đổi cũ hơn thay đổi đã áp dụng (khi hai
+ * giao dịch commit gần như cùng lúc).
+ */
+@Service
+@RequiredArgsConstructor
+public class LowStockAlertServiceImpl implements LowStockAlertService {
+
+	private final ProductRepository productRepository;
+
+	private final Map<Integer, LowStockAlertResponse> alerts = new ConcurrentHashMap<>();
+	private final Map<Integer, Long> versions = new HashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	@Override
+	public void onStockChanged(ProductEntity product) {
+		if (product.getId() == null) {
+			return;
+		}
+
+		Integer productId = product.getId();
+		LowStockAlertResponse alert = toAlert(product);
+		long version = sequence.incrementAndGet();
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					apply(productId, alert, version);
+				}
+			});
+		} else {
+			apply(productId, alert, version);
+		}
+	}
+
+	@Override
+	public List<LowStockAlertResponse> getAlerts() {
+		return alerts.values().stream()
+				.sorted(Comparator.comparing(LowStockAlertResponse::getProductName,
+						Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)))
+				.toList();
+	}
+
+	@Override
+	public int getAlertCount() {
+		return alerts.size();
+	}
+
+	/**
+	 * Chạy khi ứng dụng khởi động xong.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		List<ProductEntity> lowStock = productRepository.findLowStock();
+		long version = sequence.incrementAndGet();
+		synchronized (this) {
+			alerts.clear();
+			versions.clear();
+			for (ProductEntity product : lowStock) {
+				alerts.put(product.getId(), toAlert(product));
+				versions.put(product.getId(), version);
+			}
+		}
+	}
+
+	private synchronized void apply(Integer productId, LowStockAlertResponse alert, long version) {
+		Long applied = versions.get(productId);
+		if (applied != null && applied > version) {
+			return;
+		}
+		versions.put(productId, version);
+		if (alert != null) {
+			alerts.put(productId, alert);
+		} else {
+			alerts.remove(productId);
+		}
+	}
+
+	/**
+	 * Tạo cảnh báo nếu sản phẩm chưa bị xóa, có ngưỡng và tồn kho không vượt quá
+	 * ngưỡng; ngược lại trả về null.
+	 */
+	private LowStockAlertResponse toAlert(ProductEntity product) {
+		Integer threshold = product.getReorderThreshold();
+		int quantity = product.getQuantity() != null ? product.getQuantity() : 0;
+		if (Boolean.TRUE.equals(product.getIsDeleted()) || threshold == null || threshold <= 0
+				|| quantity > threshold) {
+			return null;
+		}
+		return new LowStockAlertResponse(product.getId(), product.getProductName(),
+				product.getUnit() != null ? product.getUnit().getUnitName() : null, quantity, threshold);
+	}
+}
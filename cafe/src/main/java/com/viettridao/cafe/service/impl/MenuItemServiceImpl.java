@@ -1,8 +1,13 @@
 package com.viettridao.cafe.service.impl;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +22,8 @@ import com.viettridao.cafe.repository.MenuDetailRepository;
 import com.viettridao.cafe.repository.MenuItemRepository;
 import com.viettridao.cafe.repository.ProductRepository;
 import com.viettridao.cafe.service.MenuItemService;
+import com.viettridao.cafe.service.RecipeService;
+import com.viettridao.cafe.service.SearchIndexService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -29,6 +36,8 @@ public class MenuItemServiceImpl implements MenuItemService {
 	private final MenuDetailRepository menuDetailRepository;
 	private final ProductRepository productRepository;
 	private final MenuItemMapper menuItemMapper;
+	private final RecipeService recipeService;
+	private final SearchIndexService searchIndexService;
 
 	@Override
 	public void create(MenuItemRequest request) {
@@ -41,6 +50,7 @@ public class MenuItemServiceImpl implements MenuItemService {
 		menuItem.setCurrentPrice(request.getCurrentPrice());
 		menuItem.setIsDeleted(false);
 		menuItemRepository.save(menuItem);
+		searchIndexService.onMenuItemChanged(menuItem);
 
 		List<MenuDetailEntity> details = request.getIngredients().stream().map(d -> {
 			ProductEntity product = productRepository.findById(d.getProductId())
@@ -57,6 +67,7 @@ public class MenuItemServiceImpl implements MenuItemService {
 		}).toList();
 
 		menuDetailRepository.saveAll(details);
+		recipeService.evict(menuItem.getId());
 	}
 
 	@Override
@@ -67,6 +78,7 @@ public class MenuItemServiceImpl implements MenuItemService {
 		menuItem.setItemName(request.getItemName());
 		menuItem.setCurrentPrice(request.getCurrentPrice());
 		menuItemRepository.save(menuItem);
+		searchIndexService.onMenuItemChanged(menuItem);
 
 		// Xóa chi tiết cũ
 		menuDetailRepository.deleteByMenuItemId(id);
@@ -86,6 +98,7 @@ public class MenuItemServiceImpl implements MenuItemService {
 		}).toList();
 
 		menuDetailRepository.saveAll(details);
+		recipeService.evict(menuItem.getId());
 	}
 
 	@Override
@@ -101,6 +114,8 @@ public class MenuItemServiceImpl implements MenuItemService {
 				.orElseThrow(() -> new RuntimeException("Không tìm thấy món"));
 		menuItem.setIsDeleted(true);
 		menuItemRepository.save(menuItem);
+		recipeService.evict(id);
+		searchIndexService.onMenuItemChanged(menuItem);
 	}
 
 	@Override
@@ -110,8 +125,17 @@ public class MenuItemServiceImpl implements MenuItemService {
 
 	@Override
 	public Page<MenuItemResponse> search(String keyword, Pageable pageable) {
-		return menuItemRepository.findByIsDeletedFalseAndItemNameContainingIgnoreCase(keyword, pageable)
-				.map(menuItemMapper::toResponse);
+		List<Integer> ids = searchIndexService.searchMenuItems(keyword);
+		int from = (int) Math.min(pageable.getOffset(), ids.size());
+		int to = Math.min(from + pageable.getPageSize(), ids.size());
+		List<Integer> pageIds = ids.subList(from, to);
+
+		Map<Integer, MenuItemEntity> byId = menuItemRepository.findAllById(pageIds).stream()
+				.filter(m -> !Boolean.TRUE.equals(m.getIsDeleted()))
+				.collect(Collectors.toMap(MenuItemEntity::getId, Function.identity()));
+		List<MenuItemResponse> content = pageIds.stream().map(byId::get).filter(Objects::nonNull)
+				.map(menuItemMapper::toResponse).toList();
+		return new PageImpl<>(content, pageable, ids.size());
 	}
 
 }
@@ -1,5 +1,6 @@
 package com.viettridao.cafe.service.impl;
 
+import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
 
@@ -21,7 +22,12 @@ import com.viettridao.cafe.repository.InvoiceItemDetailRepository;
 import com.viettridao.cafe.repository.InvoiceRepository;
 import com.viettridao.cafe.repository.ReservationRepository;
 import com.viettridao.cafe.repository.TableRepository;
+import com.viettridao.cafe.service.DailySummaryService;
+import com.viettridao.cafe.service.IngredientConsumptionService;
+import com.viettridao.cafe.service.ItemAnalyticsService;
+import com.viettridao.cafe.service.LedgerService;
 import com.viettridao.cafe.service.PaymentService;
+import com.viettridao.cafe.service.SalesHeatmapService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -33,6 +39,11 @@ public class PaymentServiceImpl implements PaymentService {
 	private final InvoiceItemDetailRepository invoiceItemDetailRepository;
 	private final TableRepository tableRepository;
 	private final ReservationRepository reservationRepository;
+	private final DailySummaryService dailySummaryService;
+	private final ItemAnalyticsService itemAnalyticsService;
+	private final SalesHeatmapService salesHeatmapService;
+	private final LedgerService ledgerService;
+	private final IngredientConsumptionService ingredientConsumptionService;
 
 	// Scheduler để chạy task delayed
 	private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
@@ -89,6 +100,15 @@ public class PaymentServiceImpl implements PaymentService {
 		invoice.setTotalAmount(totalAmount);
 		invoiceRepository.save(invoice);
 
+		// Cộng doanh thu vào bảng tổng hợp theo ngày, ghi sổ thu chi (cùng giao dịch)
+		// và bỏ số liệu món bán chạy, bảng nhiệt đã lưu của ngày đó
+		LocalDate invoiceDate = invoice.getCreatedAt() != null ? invoice.getCreatedAt().toLocalDate() : null;
+		dailySummaryService.addRevenue(invoiceDate, totalAmount);
+		ledgerService.syncInvoice(invoice);
+		ingredientConsumptionService.consume(invoice.getId(), items, invoiceDate);
+		itemAnalyticsService.evict(invoiceDate);
+		salesHeatmapService.evict(invoiceDate);
+
 		List<ReservationEntity> reservations = reservationRepository.findByInvoice_IdAndIsDeletedFalse(invoice.getId());
 		for (ReservationEntity r : reservations) {
 			r.setIsDeleted(true);
@@ -1,6 +1,10 @@
 package com.viettridao.cafe.service.impl;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
@@ -9,15 +13,22 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.viettridao.cafe.common.StockMovementType;
 import com.viettridao.cafe.dto.request.product.ProductRequest;
 import com.viettridao.cafe.dto.response.product.ProductResponse;
 import com.viettridao.cafe.mapper.ProductMapper;
 import com.viettridao.cafe.model.ImportEntity;
 import com.viettridao.cafe.model.ProductEntity;
-import com.viettridao.cafe.repository.ExportRepository;
 import com.viettridao.cafe.repository.ImportRepository;
 import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.service.DailySummaryService;
+import com.viettridao.cafe.service.InventoryCostingService;
+import com.viettridao.cafe.service.LowStockAlertService;
 import com.viettridao.cafe.service.ProductService;
+import com.viettridao.cafe.service.ProductSnapshotService;
+import com.viettridao.cafe.service.SearchIndexService;
+import com.viettridao.cafe.service.StockForecastService;
+import com.viettridao.cafe.service.StockLedgerService;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -28,21 +39,25 @@ public class ProductServiceImpl implements ProductService {
 
 	private final ProductRepository productRepository;
 	private final ImportRepository importRepository;
-	private final ExportRepository exportRepository;
 	private final ProductMapper productMapper;
+	private final DailySummaryService dailySummaryService;
+	private final ProductSnapshotService productSnapshotService;
+	private final StockLedgerService stockLedgerService;
+	private final InventoryCostingService inventoryCostingService;
+	private final LowStockAlertService lowStockAlertService;
+	private final StockForecastService stockForecastService;
+	private final SearchIndexService searchIndexService;
 
 	@Override
 	public List<ProductResponse> findAll() {
-		return productRepository.findAllByIsDeletedFalse().stream().map(this::mapProductWithExtras)
-				.collect(Collectors.toList());
+		return mapProductsWithExtras(productRepository.findAllByIsDeletedFalse());
 	}
 
 	@Override
 	public Page<ProductResponse> findAllPaged(int page, int size) {
 		Pageable pageable = PageRequest.of(page, size);
 		Page<ProductEntity> entityPage = productRepository.findAllByIsDeletedFalse(pageable);
-		List<ProductResponse> dtoList = entityPage.getContent().stream().map(this::mapProductWithExtras)
-				.collect(Collectors.toList());
+		List<ProductResponse> dtoList = mapProductsWithExtras(entityPage.getContent());
 		return new PageImpl<>(dtoList, pageable, entityPage.getTotalElements());
 	}
 
@@ -50,7 +65,7 @@ public class ProductServiceImpl implements ProductService {
 	public ProductResponse findById(Integer id) {
 		ProductEntity entity = productRepository.findByIdAndIsDeletedFalse(id)
 				.orElseThrow(() -> new RuntimeException("Không tìm thấy sản phẩm"));
-		return mapProductWithExtras(entity);
+		return productMapper.toResponse(entity);
 	}
 
 	@Override
@@ -58,7 +73,9 @@ public class ProductServiceImpl implements ProductService {
 	public void save(ProductRequest request) {
 		ProductEntity entity = productMapper.fromRequest(request);
 		entity.setIsDeleted(false);
+		entity.setQuantity(0); // tồn kho được cộng qua sổ kho bên dưới
 		productRepository.save(entity);
+		searchIndexService.onProductChanged(entity);
 
 		ImportEntity importEntity = new ImportEntity();
 		importEntity.setProduct(entity);
@@ -68,6 +85,13 @@ public class ProductServiceImpl implements ProductService {
 		importEntity.setTotalAmount(request.getPrice() * request.getQuantity());
 		importEntity.setIsDeleted(false);
 		importRepository.save(importEntity);
+
+		stockLedgerService.record(entity, StockMovementType.IMPORT, request.getQuantity(), importEntity.getId(),
+				importEntity.getImportDate());
+		inventoryCostingService.onImport(entity, 0, request.getQuantity(), request.getPrice());
+		productSnapshotService.onImport(entity, request.getImportDate(), request.getPrice());
+
+		dailySummaryService.addImportCost(importEntity.getImportDate(), importEntity.getTotalAmount());
 	}
 
 	@Override
@@ -76,19 +100,37 @@ public class ProductServiceImpl implements ProductService {
 	    ProductEntity entity = productRepository.findByIdAndIsDeletedFalse(id)
 	            .orElseThrow(() -> new RuntimeException("Không tìm thấy sản phẩm"));
 
-	    // Cập nhật các trường từ request, null sẽ không ghi đè
+	    // Cập nhật các trường từ request, null sẽ không ghi đè. Số lượng không ghi
+	    // trực tiếp mà được ghi sổ kho thành một dòng điều chỉnh
+	    Integer oldQuantity = entity.getQuantity();
 	    productMapper.updateEntityFromRequest(request, entity);
+	    Integer newQuantity = entity.getQuantity();
+	    entity.setQuantity(oldQuantity);
 
 	    // Mapper đã xử lý unit trong afterMappingRequest
 	    productRepository.save(entity);
 
-	    // Cập nhật import mới nhất
+	    if (newQuantity != null && !newQuantity.equals(oldQuantity)) {
+	        stockLedgerService.record(entity, StockMovementType.ADJUSTMENT,
+	                newQuantity - (oldQuantity != null ? oldQuantity : 0), null, LocalDate.now());
+	    }
+
+	    // Cập nhật ngày và giá của import mới nhất. Số lượng của đơn nhập giữ nguyên
+	    // vì đã được ghi sổ kho, phần chênh lệch tồn kho nằm ở dòng điều chỉnh trên
 	    importRepository.findTopByProductIdOrderByImportDateDesc(id).ifPresentOrElse(importEntity -> {
+	        // Trừ số tiền cũ khỏi bảng tổng hợp trước khi ghi đè đơn nhập
+	        if (!Boolean.TRUE.equals(importEntity.getIsDeleted())) {
+	            dailySummaryService.addImportCost(importEntity.getImportDate(),
+	                    importEntity.getTotalAmount() != null ? -importEntity.getTotalAmount() : null);
+	        }
+	        int importQuantity = importEntity.getQuantity() != null ? importEntity.getQuantity() : 0;
 	        importEntity.setImportDate(request.getImportDate());
 	        importEntity.setPrice(request.getPrice());
-	        importEntity.setQuantity(request.getQuantity());
-	        importEntity.setTotalAmount(request.getPrice() * request.getQuantity());
+	        importEntity.setTotalAmount(request.getPrice() * importQuantity);
 	        importRepository.save(importEntity);
+	        if (!Boolean.TRUE.equals(importEntity.getIsDeleted())) {
+	            dailySummaryService.addImportCost(importEntity.getImportDate(), importEntity.getTotalAmount());
+	        }
 	    }, () -> {
 	        ImportEntity importEntity = new ImportEntity();
 	        importEntity.setProduct(entity);
@@ -98,7 +140,16 @@ public class ProductServiceImpl implements ProductService {
 	        importEntity.setTotalAmount(request.getPrice() * request.getQuantity());
 	        importEntity.setIsDeleted(false);
 	        importRepository.save(importEntity);
+	        dailySummaryService.addImportCost(importEntity.getImportDate(), importEntity.getTotalAmount());
 	    });
+
+	    // Đơn nhập vừa sửa có thể không còn là mới nhất: tính lại ảnh chụp từ lịch sử
+	    productSnapshotService.refresh(entity);
+	    inventoryCostingService.replay(entity);
+	    productRepository.save(entity);
+	    lowStockAlertService.onStockChanged(entity); // ngưỡng có thể đã thay đổi
+	    stockForecastService.onProductChanged(entity);
+	    searchIndexService.onProductChanged(entity);
 	}
 
 	@Override
@@ -108,13 +159,16 @@ public class ProductServiceImpl implements ProductService {
 				.orElseThrow(() -> new RuntimeException("Không tìm thấy sản phẩm"));
 		entity.setIsDeleted(true);
 		productRepository.save(entity);
+		// Đơn nhập, xuất của sản phẩm vẫn được giữ và vẫn được tính trong báo cáo,
+		// nên bảng tổng hợp theo ngày không cần điều chỉnh
+		lowStockAlertService.onStockChanged(entity);
+		stockForecastService.onProductChanged(entity);
+		searchIndexService.onProductChanged(entity);
 	}
 
 	@Override
 	public int getCurrentStock(Integer productId) {
-		Integer imported = importRepository.getTotalImportedQuantity(productId);
-		Integer exported = exportRepository.getTotalExportedQuantity(productId);
-		return (imported != null ? imported : 0) - (exported != null ? exported : 0);
+		return stockLedgerService.getCurrentStock(productId);
 	}
 
 	
@@ -125,10 +179,8 @@ public class ProductServiceImpl implements ProductService {
 
 		ProductRequest request = productMapper.toRequest(entity);
 
-		importRepository.findTopByProductIdOrderByImportDateDesc(id).ifPresent(latestImport -> {
-			request.setImportDate(latestImport.getImportDate()); // LocalDate trực tiếp
-			request.setPrice(latestImport.getPrice());
-		});
+		request.setImportDate(entity.getLastImportDate());
+		request.setPrice(entity.getLatestPrice());
 
 		request.setId(entity.getId());
 		request.setProductName(entity.getProductName());
@@ -142,40 +194,43 @@ public class ProductServiceImpl implements ProductService {
 
 	@Override
 	public List<ProductResponse> search(String keyword) {
-		return productRepository.findByProductNameContainingIgnoreCaseAndIsDeletedFalse(keyword).stream()
-				.map(this::mapProductWithExtras).collect(Collectors.toList());
+		return mapProductsWithExtras(findByIdsInOrder(searchIndexService.searchProducts(keyword)));
 	}
 
 	@Override
 	public Page<ProductResponse> search(String keyword, int page, int size) {
 		Pageable pageable = PageRequest.of(page, size);
-		Page<ProductEntity> entityPage = productRepository
-				.findByProductNameContainingIgnoreCaseAndIsDeletedFalse(keyword, pageable);
-		List<ProductResponse> dtoList = entityPage.getContent().stream().map(this::mapProductWithExtras)
-				.collect(Collectors.toList());
-		return new PageImpl<>(dtoList, pageable, entityPage.getTotalElements());
+		List<Integer> ids = searchIndexService.searchProducts(keyword);
+		int from = (int) Math.min(pageable.getOffset(), ids.size());
+		int to = Math.min(from + size, ids.size());
+		List<ProductResponse> dtoList = mapProductsWithExtras(findByIdsInOrder(ids.subList(from, to)));
+		return new PageImpl<>(dtoList, pageable, ids.size());
 	}
 
 	@Override
 	public List<ProductResponse> getAll() {
-		return productRepository.findAllByIsDeletedFalse().stream().map(this::mapProductWithExtras)
-				.collect(Collectors.toList());
+		return mapProductsWithExtras(productRepository.findAllByIsDeletedFalse());
 	}
 
-	private ProductResponse mapProductWithExtras(ProductEntity product) {
-		ProductResponse dto = productMapper.toResponse(product);
-
-		importRepository.findTopByProductIdOrderByImportDateDesc(product.getId()).ifPresent(importEntity -> {
-			dto.setLatestPrice(importEntity.getPrice());
-			dto.setImportDate(importEntity.getImportDate()); // LocalDate trực tiếp
-			dto.setLastImportDate(importEntity.getImportDate());
-			dto.setTotalAmount(product.getQuantity() * importEntity.getPrice());
-		});
-
-		exportRepository.findTopByProductIdOrderByExportDateDesc(product.getId())
-				.ifPresent(exportEntity -> dto.setLastExportDate(exportEntity.getExportDate()));
+	/**
+	 * Chuyển một danh sách sản phẩm sang DTO. Giá nhập mới nhất, ngày nhập xuất
+	 * và tổng tiền đã có sẵn trong các cột ảnh chụp của bảng products.
+	 */
+	private List<ProductResponse> mapProductsWithExtras(List<ProductEntity> products) {
+		return products.stream().map(productMapper::toResponse).toList();
+	}
 
-		dto.setCurrentQuantity(product.getQuantity());
-		return dto;
+	/**
+	 * Nạp các sản phẩm chưa bị xóa theo danh sách id bằng một truy vấn, giữ nguyên
+	 * thứ tự của danh sách id (thứ tự kết quả tìm kiếm).
+	 */
+	private List<ProductEntity> findByIdsInOrder(List<Integer> ids) {
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		Map<Integer, ProductEntity> byId = productRepository.findAllById(ids).stream()
+				.filter(p -> !Boolean.TRUE.equals(p.getIsDeleted()))
+				.collect(Collectors.toMap(ProductEntity::getId, Function.identity()));
+		return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
 	}
 }
@@ -0,0 +1,142 @@
+package com.viettridao.cafe.service.impl;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viettridao.cafe.dto.response.product.ProductStockMetaResponse;
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.service.ProductSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai cập nhật ảnh chụp nhập xuất của sản phẩm. Các nghiệp vụ nhập, xuất
+ * và sửa sản phẩm gọi vào đây trong cùng giao dịch, nên trang kho chỉ cần đọc
+ * bảng products.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSnapshotServiceImpl implements ProductSnapshotService {
+
+	// Số sản phẩm được dựng lại trong một lô (một truy vấn lịch sử nhập xuất)
+	private static final int REBUILD_BATCH_SIZE = 500;
+
+	private final ProductRepository productRepository;
+
+	@Override
+	public void onImport(ProductEntity product, LocalDate date, Double price) {
+		if (date != null && (product.getLastImportDate() == null || !date.isBefore(product.getLastImportDate()))) {
+			product.setLastImportDate(date);
+			product.setLatestPrice(price);
+		}
+		refreshTotalAmount(product);
+	}
+
+	@Override
+	public void onExport(ProductEntity product, LocalDate date) {
+		if (date != null && (product.getLastExportDate() == null || date.isAfter(product.getLastExportDate()))) {
+			product.setLastExportDate(date);
+		}
+		refreshTotalAmount(product);
+	}
+
+	@Override
+	@Transactional
+	public void refresh(ProductEntity product) {
+		// Đẩy các thay đổi đang chờ xuống trước khi đọc lịch sử bằng truy vấn SQL
+		productRepository.flush();
+		List<Object[]> rows = productRepository.findStockMetaByProductIds(List.of(product.getId()));
+		apply(product, rows.isEmpty() ? null : toStockMeta(rows.get(0)));
+	}
+
+	@Override
+	@Transactional
+	public int rebuildAll() {
+		int rebuilt = 0;
+		PageRequest pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+		Page<ProductEntity> page;
+		do {
+			page = productRepository.findAll(pageable);
+			rebuilt += rebuild(page.getContent());
+			pageable = pageable.next();
+		} while (page.hasNext());
+		return rebuilt;
+	}
+
+	/**
+	 * Chạy khi ứng dụng khởi động xong: dựng ảnh chụp cho các sản phẩm chưa có
+	 * (dữ liệu có từ trước khi thêm các cột ảnh chụp).
+	 */
+	@Transactional
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildMissing() {
+		List<ProductEntity> missing = productRepository.findByTotalAmountIsNull();
+		for (int from = 0; from < missing.size(); from += REBUILD_BATCH_SIZE) {
+			rebuild(missing.subList(from, Math.min(from + REBUILD_BATCH_SIZE, missing.size())));
+		}
+	}
+
+	/**
+	 * Dựng lại ảnh chụp cho một lô sản phẩm bằng một truy vấn lịch sử nhập xuất.
+	 */
+	private int rebuild(List<ProductEntity> products) {
+		if (products.isEmpty()) {
+			return 0;
+		}
+
+		Map<Integer, ProductStockMetaResponse> metaById = new HashMap<>();
+		for (Object[] row : productRepository
+				.findStockMetaByProductIds(products.stream().map(ProductEntity::getId).toList())) {
+			ProductStockMetaResponse meta = toStockMeta(row);
+			metaById.put(meta.getProductId(), meta);
+		}
+
+		for (ProductEntity product : products) {
+			apply(product, metaById.get(product.getId()));
+		}
+		productRepository.saveAll(products);
+		return products.size();
+	}
+
+	private void apply(ProductEntity product, ProductStockMetaResponse meta) {
+		product.setLatestPrice(meta != null ? meta.getLatestPrice() : null);
+		product.setLastImportDate(meta != null ? meta.getLastImportDate() : null);
+		product.setLastExportDate(meta != null ? meta.getLastExportDate() : null);
+		refreshTotalAmount(product);
+	}
+
+	private void refreshTotalAmount(ProductEntity product) {
+		if (product.getQuantity() != null && product.getLatestPrice() != null) {
+			product.setTotalAmount(product.getQuantity() * product.getLatestPrice());
+		} else {
+			product.setTotalAmount(0.0);
+		}
+	}
+
+	/**
+	 * Chuyển một dòng kết quả (id sản phẩm, giá nhập, ngày nhập, ngày xuất) sang
+	 * DTO.
+	 */
+	private ProductStockMetaResponse toStockMeta(Object[] row) {
+		return new ProductStockMetaResponse(((Number) row[0]).intValue(),
+				row[1] != null ? ((Number) row[1]).doubleValue() : null, toLocalDate(row[2]), toLocalDate(row[3]));
+	}
+
+	private LocalDate toLocalDate(Object value) {
+		if (value instanceof java.sql.Date date) {
+			return date.toLocalDate();
+		}
+		return (LocalDate) value;
+	}
+}
@@ -0,0 +1,80 @@
+package com.viettridao.cafe.service.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.viettridao.cafe.repository.MenuDetailRepository;
+import com.viettridao.cafe.service.RecipeService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai đọc công thức món có lưu đệm. Công thức ít khi thay đổi nên được
+ * giữ trong bộ nhớ đến khi món bị sửa; thanh toán một hóa đơn nhiều món chỉ cần
+ * tối đa một truy vấn cho các món chưa có trong bộ nhớ.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecipeServiceImpl implements RecipeService {
+
+	private final MenuDetailRepository menuDetailRepository;
+
+	// id món -> (id sản phẩm -> định lượng cho một phần)
+	private final Map<Integer, Map<Integer, Double>> recipes = new ConcurrentHashMap<>();
+
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Integer, Map<Integer, Double>> getRecipes(Collection<Integer> menuItemIds) {
+		Map<Integer, Map<Integer, Double>> result = new HashMap<>();
+		Set<Integer> missing = new HashSet<>();
+		for (Integer menuItemId : menuItemIds) {
+			Map<Integer, Double> recipe = recipes.get(menuItemId);
+			if (recipe != null) {
+				result.put(menuItemId, recipe);
+			} else if (menuItemId != null) {
+				missing.add(menuItemId);
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			Map<Integer, Map<Integer, Double>> loaded = new HashMap<>();
+			missing.forEach(id -> loaded.put(id, new HashMap<>()));
+			for (Object[] row : menuDetailRepository.findRecipeLines(missing)) {
+				if (row[2] != null) {
+					loaded.get((Integer) row[0]).merge((Integer) row[1], ((Number) row[2]).doubleValue(), Double::sum);
+				}
+			}
+			loaded.forEach((id, recipe) -> {
+				Map<Integer, Double> immutable = Map.copyOf(recipe);
+				recipes.put(id, immutable);
+				result.put(id, immutable);
+			});
+		}
+		return result;
+	}
+
+	@Override
+	public void evict(Integer menuItemId) {
+		recipes.remove(menuItemId);
+
+		// Xóa thêm sau khi giao dịch kết thúc để loại bỏ công thức cũ được nạp lại
+		// trong lúc thay đổi chưa được commit
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					recipes.remove(menuItemId);
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.viettridao.cafe.service.impl;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import com.viettridao.cafe.common.ReportType;
+import com.viettridao.cafe.dto.response.reportstatistics.ReportCacheStatsResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.ReportItemResponse;
+import com.viettridao.cafe.service.ReportCacheService;
+
+/**
+ * Triển khai bộ nhớ đệm báo cáo theo ngày trong bộ nhớ, dựa trên
+ * {@link ClosedDayCache}: số phần tử có giới hạn, kết quả được tính từ dữ liệu
+ * đọc trước khi có thay đổi sẽ không bị lưu lại.
+ */
+@Service
+public class ReportCacheServiceImpl implements ReportCacheService {
+
+	// Đủ cho khoảng 400 ngày của mỗi loại báo cáo
+	private static final int MAX_ENTRIES = 400 * ReportType.values().length;
+
+	private final ClosedDayCache<DayReport, ReportItemResponse> cache = new ClosedDayCache<>(MAX_ENTRIES);
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	@Override
+	public ReportItemResponse get(LocalDate date, ReportType type) {
+		ReportItemResponse item = cache.get(new DayReport(date, type));
+
+		if (item != null) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+		return item;
+	}
+
+	@Override
+	public long currentVersion() {
+		return cache.currentVersion();
+	}
+
+	@Override
+	public void put(LocalDate date, ReportType type, ReportItemResponse item, long expectedVersion) {
+		cache.put(new DayReport(date, type), item, expectedVersion);
+	}
+
+	@Override
+	public void evict(LocalDate date) {
+		if (date != null) {
+			evictRange(date, date);
+		}
+	}
+
+	@Override
+	public void evictRange(LocalDate from, LocalDate to) {
+		cache.evictIf(key -> !key.date().isBefore(from) && !key.date().isAfter(to));
+	}
+
+	@Override
+	public ReportCacheStatsResponse getStats() {
+		long h = hits.get();
+		long m = misses.get();
+		return new ReportCacheStatsResponse(h, m, cache.size(), h + m > 0 ? (double) h / (h + m) : 0.0);
+	}
+
+	// Khóa bộ nhớ đệm: một ngày của một loại báo cáo
+	private record DayReport(LocalDate date, ReportType type) {
+	}
+}
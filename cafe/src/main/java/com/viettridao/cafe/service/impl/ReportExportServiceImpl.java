@@ -0,0 +1,243 @@
+package com.viettridao.cafe.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.viettridao.cafe.common.ReportFormat;
+import com.viettridao.cafe.common.ReportGranularity;
+import com.viettridao.cafe.common.ReportType;
+import com.viettridao.cafe.dto.response.employee.EmployeeDailySalaryResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.ReportItemResponse;
+import com.viettridao.cafe.service.ReportExportService;
+import com.viettridao.cafe.service.ReportService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai xuất báo cáo dạng luồng. Dòng dữ liệu được lấy dần từ
+ * {@link ReportService} và ghi ngay ra luồng đầu ra, nên bộ nhớ sử dụng không
+ * phụ thuộc vào độ dài khoảng thời gian.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportExportServiceImpl implements ReportExportService {
+
+	// Số dòng PDF được giữ trong bảng trước khi đẩy ra luồng đầu ra
+	private static final int PDF_FLUSH_ROWS = 200;
+
+	private final ReportService reportService;
+
+	@Override
+	public void writeReport(LocalDate from, LocalDate to, ReportType type, ReportGranularity granularity,
+			ReportFormat format, OutputStream out) throws IOException {
+		writeReport(from, to, type, granularity, format, out, rows -> {
+		});
+	}
+
+	@Override
+	public void writeReport(LocalDate from, LocalDate to, ReportType type, ReportGranularity granularity,
+			ReportFormat format, OutputStream out, LongConsumer rowListener) throws IOException {
+		ReportGranularity g = granularity != null ? granularity : ReportGranularity.DAY;
+		if (format == ReportFormat.PDF) {
+			writePdf(from, to, type, g, out, rowListener);
+		} else {
+			writeText(from, to, type, g, out, rowListener);
+		}
+	}
+
+	@Override
+	public long countRows(LocalDate from, LocalDate to, ReportType type, ReportGranularity granularity) {
+		if (from.isAfter(to)) {
+			return 0;
+		}
+		if (type == ReportType.EMPLOYEE_INFO) {
+			return reportService.getEmployeeDailySalaries(from, to, PageRequest.of(0, 1)).getTotalElements();
+		}
+		if (granularity == null || granularity == ReportGranularity.DAY) {
+			return ChronoUnit.DAYS.between(from, to) + 1;
+		}
+
+		long buckets = 0;
+		for (LocalDate date = from; !date.isAfter(to); date = granularity.next(date)) {
+			buckets++;
+		}
+		return buckets;
+	}
+
+	@Override
+	public String getFileName(ReportFormat format) {
+		return "report." + format.extension();
+	}
+
+	/**
+	 * Ghi báo cáo PDF. Bảng được đánh dấu chưa hoàn tất để OpenPDF ghi các dòng đã
+	 * thêm ra luồng và giải phóng chúng sau mỗi lần thêm bảng vào tài liệu.
+	 */
+	private void writePdf(LocalDate from, LocalDate to, ReportType type, ReportGranularity granularity,
+			OutputStream out, LongConsumer rowListener) throws IOException {
+		Document document = new Document(PageSize.A4);
+		try {
+			PdfWriter.getInstance(document, out);
+			document.open();
+
+			if (type == ReportType.EMPLOYEE_INFO) {
+				// Báo cáo lương nhân viên
+				document.add(new Paragraph("📊 Báo cáo lương nhân viên",
+						FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16)));
+				document.add(new Paragraph(" "));
+				PdfPTable table = newStreamingTable("Tên nhân viên", "Ngày", "Lương/ngày");
+
+				try (Stream<EmployeeDailySalaryResponse> rows = reportService.streamEmployeeDailySalaries(from, to)) {
+					int count = 0;
+					Iterator<EmployeeDailySalaryResponse> it = rows.iterator();
+					while (it.hasNext()) {
+						EmployeeDailySalaryResponse e = it.next();
+						table.addCell(e.getFullName());
+						table.addCell(e.getDate().toString());
+						table.addCell(formatMoney(e.getDailySalary()));
+						rowListener.accept(++count);
+
+						if (count % PDF_FLUSH_ROWS == 0) {
+							document.add(table);
+						}
+					}
+				}
+
+				table.setComplete(true);
+				document.add(table);
+			} else {
+				// Báo cáo tài chính
+				List<ReportItemResponse> reports = reportService.getReport(from, to, type, granularity);
+
+				document.add(
+						new Paragraph("📊 Báo cáo tài chính", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16)));
+				document.add(new Paragraph(" "));
+				PdfPTable table = newStreamingTable(granularity == ReportGranularity.DAY ? "Ngày" : "Kỳ", "Thu", "Chi");
+
+				double totalRevenue = 0;
+				double totalExpense = 0;
+				int count = 0;
+
+				for (ReportItemResponse r : reports) {
+					double revenue = r.getRevenue() != null ? r.getRevenue() : 0.0;
+					double expense = r.getExpense() != null ? r.getExpense() : 0.0;
+					totalRevenue += revenue;
+					totalExpense += expense;
+
+					table.addCell(periodOf(granularity, r.getDate()));
+					table.addCell(formatMoney(revenue));
+					table.addCell(formatMoney(expense));
+					rowListener.accept(++count);
+
+					if (count % PDF_FLUSH_ROWS == 0) {
+						document.add(table);
+					}
+				}
+
+				// Thêm dòng tổng
+				table.addCell("Tổng:");
+				table.addCell(formatMoney(totalRevenue));
+				table.addCell(formatMoney(totalExpense));
+
+				table.setComplete(true);
+				document.add(table);
+			}
+		} catch (DocumentException e) {
+			throw new IOException("Không thể tạo file PDF", e);
+		} finally {
+			if (document.isOpen()) {
+				document.close();
+			}
+		}
+	}
+
+	/**
+	 * Ghi báo cáo dạng văn bản, mỗi dòng dữ liệu là một dòng phân cách bằng tab.
+	 */
+	private void writeText(LocalDate from, LocalDate to, ReportType type, ReportGranularity granularity,
+			OutputStream out, LongConsumer rowListener) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+		if (type == ReportType.EMPLOYEE_INFO) {
+			writer.write("Tên nhân viên\tNgày\tLương/ngày\n");
+			try (Stream<EmployeeDailySalaryResponse> rows = reportService.streamEmployeeDailySalaries(from, to)) {
+				long count = 0;
+				Iterator<EmployeeDailySalaryResponse> it = rows.iterator();
+				while (it.hasNext()) {
+					EmployeeDailySalaryResponse e = it.next();
+					writer.write(e.getFullName() + "\t" + e.getDate() + "\t" + formatMoney(e.getDailySalary()) + "\n");
+					rowListener.accept(++count);
+				}
+			}
+		} else {
+			List<ReportItemResponse> reports = reportService.getReport(from, to, type, granularity);
+			writer.write(granularity == ReportGranularity.DAY ? "Ngày\tThu\tChi\n" : "Kỳ\tThu\tChi\n");
+
+			double totalRevenue = 0;
+			double totalExpense = 0;
+			long count = 0;
+
+			for (ReportItemResponse r : reports) {
+				double revenue = r.getRevenue() != null ? r.getRevenue() : 0;
+				double expense = r.getExpense() != null ? r.getExpense() : 0;
+				totalRevenue += revenue;
+				totalExpense += expense;
+
+				writer.write(periodOf(granularity, r.getDate()) + "\t" + formatMoney(revenue) + "\t"
+						+ formatMoney(expense) + "\n");
+				rowListener.accept(++count);
+			}
+
+			// Thêm dòng tổng
+			writer.write("Tổng:\t" + formatMoney(totalRevenue) + "\t" + formatMoney(totalExpense) + "\n");
+		}
+
+		writer.flush();
+	}
+
+	/**
+	 * Tạo bảng PDF 3 cột có dòng tiêu đề lặp lại ở mỗi trang, ở chế độ chưa hoàn
+	 * tất để có thể ghi dần từng phần.
+	 */
+	private PdfPTable newStreamingTable(String... headers) {
+		PdfPTable table = new PdfPTable(headers.length);
+		table.setWidthPercentage(100);
+		table.setComplete(false);
+		for (String header : headers) {
+			table.addCell(header);
+		}
+		table.setHeaderRows(1);
+		return table;
+	}
+
+	/**
+	 * Cột thời gian của báo cáo thu chi: ngày (yyyy-MM-dd) hoặc tên kỳ khi gộp.
+	 */
+	private String periodOf(ReportGranularity granularity, LocalDate date) {
+		return granularity == ReportGranularity.DAY ? date.toString() : granularity.label(date);
+	}
+
+	private String formatMoney(Double value) {
+		return String.format("%.0f đ", value != null ? value : 0.0);
+	}
+}
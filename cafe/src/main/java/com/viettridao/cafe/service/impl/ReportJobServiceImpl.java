@@ -0,0 +1,234 @@
+package com.viettridao.cafe.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.viettridao.cafe.common.ReportFormat;
+import com.viettridao.cafe.common.ReportGranularity;
+import com.viettridao.cafe.common.ReportJobStatus;
+import com.viettridao.cafe.common.ReportType;
+import com.viettridao.cafe.dto.response.reportstatistics.ReportJobResponse;
+import com.viettridao.cafe.service.ReportExportService;
+import com.viettridao.cafe.service.ReportJobService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Triển khai hàng đợi xuất báo cáo chạy nền. Các tác vụ được thực hiện trên một
+ * thread pool giới hạn, file kết quả được ghi ra đĩa để tải về sau.
+ */
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+	// Số tác vụ đã kết thúc tối đa được giữ lại (cũ hơn sẽ bị xóa cùng file)
+	private static final int MAX_FINISHED_JOBS = 50;
+
+	// Thời gian tối đa một file đã xuất được dùng lại cho yêu cầu giống hệt. Các
+	// ngày đã qua vẫn có thể thay đổi (nhập hàng, chi phí ghi lùi ngày, dựng lại
+	// bảng tổng hợp) nên file không được dùng lại mãi mãi
+	private static final Duration REUSE_TTL = Duration.ofMinutes(30);
+
+	private final ReportExportService reportExportService;
+	private final Path jobDir;
+
+	// Thread pool giới hạn cho các tác vụ xuất báo cáo
+	private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+	private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+	public ReportJobServiceImpl(ReportExportService reportExportService, @Value("${report.jobs.dir}") String jobDir,
+			@Value("${report.jobs.pool-size:2}") int poolSize,
+			@Value("${report.jobs.queue-capacity:20}") int queueCapacity) {
+		this.reportExportService = reportExportService;
+		this.jobDir = Paths.get(jobDir);
+
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("report-job-");
+		executor.initialize();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	@Override
+	public synchronized ReportJobResponse submit(LocalDate from, LocalDate to, ReportType type,
+			ReportGranularity granularity, ReportFormat format) {
+		if (from == null || to == null || from.isAfter(to)) {
+			throw new RuntimeException("Ngày kết thúc phải sau hoặc bằng ngày bắt đầu");
+		}
+
+		ReportFormat f = format != null ? format : ReportFormat.TXT;
+		ReportGranularity g = granularity != null ? granularity : ReportGranularity.DAY;
+		String key = from + "|" + to + "|" + type + "|" + g + "|" + f;
+
+		// Dùng lại tác vụ giống hệt nếu đang chờ, đang chạy hoặc đã có file còn dùng
+		// được
+		for (ReportJob job : jobs.values()) {
+			if (job.key.equals(key) && isReusable(job)) {
+				return job.toResponse();
+			}
+		}
+
+		ReportJob job = new ReportJob(UUID.randomUUID().toString(), key, from, to, type, g, f);
+		jobs.put(job.id, job);
+
+		try {
+			executor.execute(() -> run(job));
+		} catch (TaskRejectedException e) {
+			job.status = ReportJobStatus.FAILED;
+			job.message = "Hàng đợi xuất báo cáo đang đầy, vui lòng thử lại sau";
+		}
+
+		pruneFinishedJobs();
+		return job.toResponse();
+	}
+
+	@Override
+	public ReportJobResponse getJob(String id) {
+		return findJob(id).toResponse();
+	}
+
+	@Override
+	public List<ReportJobResponse> getJobs() {
+		return jobs.values().stream().sorted(Comparator.comparing((ReportJob j) -> j.createdAt).reversed())
+				.map(ReportJob::toResponse).toList();
+	}
+
+	@Override
+	public Path getFile(String id) {
+		ReportJob job = findJob(id);
+		if (job.status != ReportJobStatus.DONE || !Files.exists(job.file)) {
+			throw new RuntimeException("File báo cáo chưa sẵn sàng");
+		}
+		return job.file;
+	}
+
+	private ReportJob findJob(String id) {
+		ReportJob job = jobs.get(id);
+		if (job == null) {
+			throw new RuntimeException("Không tìm thấy tác vụ xuất báo cáo");
+		}
+		return job;
+	}
+
+	/**
+	 * Tác vụ đang chờ hoặc đang chạy luôn được dùng lại. Tác vụ đã xong chỉ được
+	 * dùng lại khi khoảng thời gian kết thúc trước ngày tạo tác vụ (lúc xuất, mọi
+	 * ngày trong khoảng đã khép lại), file được tạo chưa quá REUSE_TTL và vẫn còn
+	 * trên đĩa.
+	 */
+	private boolean isReusable(ReportJob job) {
+		return switch (job.status) {
+		case QUEUED, RUNNING -> true;
+		case DONE -> job.to.isBefore(job.createdAt.toLocalDate())
+				&& job.createdAt.isAfter(LocalDateTime.now().minus(REUSE_TTL)) && Files.exists(job.file);
+		default -> false;
+		};
+	}
+
+	/**
+	 * Thực hiện tác vụ: ghi báo cáo ra file tạm rồi đổi tên khi hoàn tất, cập nhật
+	 * tiến độ theo số dòng đã ghi.
+	 */
+	private void run(ReportJob job) {
+		job.status = ReportJobStatus.RUNNING;
+		Path tmp = job.file.resolveSibling(job.file.getFileName() + ".part");
+
+		try {
+			Files.createDirectories(jobDir);
+			long total = Math.max(reportExportService.countRows(job.from, job.to, job.type, job.granularity), 1);
+
+			try (OutputStream out = Files.newOutputStream(tmp)) {
+				reportExportService.writeReport(job.from, job.to, job.type, job.granularity, job.format, out,
+						rows -> job.progress.set((int) Math.min(99, rows * 100 / total)));
+			}
+
+			Files.move(tmp, job.file, StandardCopyOption.REPLACE_EXISTING);
+			job.progress.set(100);
+			job.status = ReportJobStatus.DONE;
+		} catch (Exception e) {
+			job.status = ReportJobStatus.FAILED;
+			job.message = "Đã xảy ra lỗi khi xuất báo cáo: " + e.getMessage();
+			try {
+				Files.deleteIfExists(tmp);
+			} catch (IOException ignored) {
+			}
+		}
+	}
+
+	/**
+	 * Xóa các tác vụ đã kết thúc cũ nhất (và file của chúng) khi vượt quá giới
+	 * hạn.
+	 */
+	private void pruneFinishedJobs() {
+		List<ReportJob> finished = jobs.values().stream()
+				.filter(j -> j.status == ReportJobStatus.DONE || j.status == ReportJobStatus.FAILED)
+				.sorted(Comparator.comparing((ReportJob j) -> j.createdAt)).toList();
+
+		for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+			ReportJob job = finished.get(i);
+			jobs.remove(job.id);
+			try {
+				Files.deleteIfExists(job.file);
+			} catch (IOException ignored) {
+			}
+		}
+	}
+
+	/**
+	 * Trạng thái nội bộ của một tác vụ.
+	 */
+	private final class ReportJob {
+		private final String id;
+		private final String key;
+		private final LocalDate from;
+		private final LocalDate to;
+		private final ReportType type;
+		private final ReportGranularity granularity;
+		private final ReportFormat format;
+		private final Path file;
+		private final LocalDateTime createdAt = LocalDateTime.now();
+		private final AtomicInteger progress = new AtomicInteger();
+		private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+		private volatile String message;
+
+		private ReportJob(String id, String key, LocalDate from, LocalDate to, ReportType type,
+				ReportGranularity granularity, ReportFormat format) {
+			this.id = id;
+			this.key = key;
+			this.from = from;
+			this.to = to;
+			this.type = type;
+			this.granularity = granularity;
+			this.format = format;
+			this.file = jobDir.resolve(id + "." + format.extension());
+		}
+
+		private ReportJobResponse toResponse() {
+			return new ReportJobResponse(id, from, to, type, granularity, format, status, progress.get(),
+					reportExportService.getFileName(format), message, createdAt);
+		}
+	}
+}
@@ -1,21 +1,30 @@
 package com.viettridao.cafe.service.impl;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.viettridao.cafe.common.ReportGranularity;
 import com.viettridao.cafe.common.ReportType;
 import com.viettridao.cafe.dto.response.employee.EmployeeDailySalaryResponse;
 import com.viettridao.cafe.dto.response.reportstatistics.ReportItemResponse;
+import com.viettridao.cafe.model.DailySummaryEntity;
 import com.viettridao.cafe.model.EmployeeEntity;
 import com.viettridao.cafe.model.PositionEntity;
 import com.viettridao.cafe.repository.EmployeeRepository;
-import com.viettridao.cafe.repository.ExpenseRepository;
-import com.viettridao.cafe.repository.ExportRepository;
-import com.viettridao.cafe.repository.ImportRepository;
-import com.viettridao.cafe.repository.InvoiceRepository;
+import com.viettridao.cafe.service.DailySummaryService;
+import com.viettridao.cafe.service.ReportCacheService;
 import com.viettridao.cafe.service.ReportService;
 
 import lombok.RequiredArgsConstructor;
@@ -29,11 +38,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
 
-	private final InvoiceRepository invoiceRepository;
-	private final ImportRepository importRepository;
-	private final ExportRepository exportRepository;
-	private final ExpenseRepository expenseRepository;
+	private final DailySummaryService dailySummaryService;
 	private final EmployeeRepository employeeRepository;
+	private final ReportCacheService reportCacheService;
 
 	/**
 	 * Lấy báo cáo tổng hợp doanh thu và chi phí theo ngày trong khoảng thời gian.
@@ -44,33 +51,7 @@ public class ReportServiceImpl implements ReportService {
 	 */
 	@Override
 	public List<ReportItemResponse> getReport(LocalDate fromDate, LocalDate toDate) {
-		List<ReportItemResponse> reports = new ArrayList<>();
-
-		double totalMonthlySalary = employeeRepository.sumAllSalaries() != null ? employeeRepository.sumAllSalaries()
-				: 0.0;
-
-		for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
-			Double revenue = invoiceRepository.sumTotalAmountByDate(date);
-			Double importCost = importRepository.sumTotalAmountByDate(date);
-			Double exportCost = exportRepository.sumTotalExportAmountByDate(date);
-			Double otherExpenses = expenseRepository.sumAmountByDate(date);
-
-			double totalRevenue = revenue != null ? revenue : 0.0;
-			double totalExpense = 0.0;
-
-			totalExpense += importCost != null ? importCost : 0.0;
-			totalExpense += exportCost != null ? exportCost : 0.0;
-			totalExpense += otherExpenses != null ? otherExpenses : 0.0;
-
-			int daysInMonth = date.lengthOfMonth();
-			double dailySalary = totalMonthlySalary / daysInMonth;
-
-			totalExpense += dailySalary;
-
-			reports.add(new ReportItemResponse(date, totalRevenue, totalExpense));
-		}
-
-		return reports;
+		return getReport(fromDate, toDate, ReportType.ALL);
 	}
 
 	/**
@@ -82,21 +63,61 @@ public class ReportServiceImpl implements ReportService {
 	 */
 	@Override
 	public List<EmployeeDailySalaryResponse> getEmployeeDailySalaries(LocalDate from, LocalDate to) {
-		List<EmployeeDailySalaryResponse> result = new ArrayList<>();
-		List<EmployeeEntity> employees = employeeRepository.findAll();
+		return streamEmployeeDailySalaries(from, to).toList();
+	}
 
-		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
-			int daysInMonth = date.lengthOfMonth();
-			for (EmployeeEntity e : employees) {
-				PositionEntity position = e.getPosition();
-				double monthlySalary = (position != null && position.getSalary() != null) ? position.getSalary() : 0.0;
-				double dailySalary = monthlySalary / daysInMonth;
+	/**
+	 * Duyệt lương hàng ngày của từng nhân viên theo từng ngày. Các dòng kết quả
+	 * được tạo dần khi luồng được đọc.
+	 *
+	 * @param from ngày bắt đầu
+	 * @param to   ngày kết thúc
+	 * @return luồng lương từng nhân viên theo từng ngày
+	 */
+	@Override
+	public Stream<EmployeeDailySalaryResponse> streamEmployeeDailySalaries(LocalDate from, LocalDate to) {
+		SalarySheet sheet = loadSalarySheet(from, to);
+		return sheet.rows(0, sheet.size());
+	}
 
-				result.add(new EmployeeDailySalaryResponse(e.getFullName(), date, dailySalary));
-			}
+	/**
+	 * Lấy một trang lương hàng ngày của nhân viên. Vị trí dòng được quy đổi trực
+	 * tiếp thành (ngày, nhân viên) nên chỉ các dòng của trang được tạo ra.
+	 *
+	 * @param from     ngày bắt đầu
+	 * @param to       ngày kết thúc
+	 * @param pageable thông tin phân trang
+	 * @return trang lương từng nhân viên theo từng ngày
+	 */
+	@Override
+	public Page<EmployeeDailySalaryResponse> getEmployeeDailySalaries(LocalDate from, LocalDate to,
+			Pageable pageable) {
+		SalarySheet sheet = loadSalarySheet(from, to);
+		long total = sheet.size();
+		long start = Math.min(pageable.getOffset(), total);
+		long end = Math.min(start + pageable.getPageSize(), total);
+
+		return new PageImpl<>(sheet.rows(start, end).toList(), pageable, total);
+	}
+
+	/**
+	 * Tải danh sách nhân viên một lần và rút gọn thành mảng tên và mảng lương
+	 * tháng.
+	 */
+	private SalarySheet loadSalarySheet(LocalDate from, LocalDate to) {
+		List<EmployeeEntity> employees = employeeRepository.findAll();
+		String[] names = new String[employees.size()];
+		double[] monthlySalaries = new double[employees.size()];
+
+		for (int i = 0; i < employees.size(); i++) {
+			EmployeeEntity e = employees.get(i);
+			PositionEntity position = e.getPosition();
+			names[i] = e.getFullName();
+			monthlySalaries[i] = (position != null && position.getSalary() != null) ? position.getSalary() : 0.0;
 		}
 
-		return result;
+		long days = from.isAfter(to) ? 0 : ChronoUnit.DAYS.between(from, to) + 1;
+		return new SalarySheet(from, days, names, monthlySalaries);
 	}
 
 	/**
@@ -111,61 +132,190 @@ public class ReportServiceImpl implements ReportService {
 	public List<ReportItemResponse> getReport(LocalDate fromDate, LocalDate toDate, ReportType type) {
 		List<ReportItemResponse> result = new ArrayList<>();
 
-		double totalMonthlySalary = employeeRepository.sumAllSalaries() != null ? employeeRepository.sumAllSalaries()
-				: 0.0;
+		boolean withSummary = type == ReportType.ALL || type == ReportType.SALE || type == ReportType.IMPORT
+				|| type == ReportType.EXPORT || type == ReportType.IMPORT_EXPORT || type == ReportType.OTHER_EXPENSE;
+		boolean withSalary = type == ReportType.ALL || type == ReportType.SALARY;
+
+		Map<LocalDate, ReportItemResponse> items = withSummary ? getSummaryItems(fromDate, toDate, type)
+				: new HashMap<>();
+
+		// Lương được tính lại mỗi lần từ tổng lương hiện tại nên không lưu vào bộ nhớ
+		// đệm
+		double totalMonthlySalary = 0.0;
+		if (withSalary) {
+			Double salaries = employeeRepository.sumAllSalaries();
+			totalMonthlySalary = salaries != null ? salaries : 0.0;
+		}
 
 		for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
-			double revenue = 0.0;
-			double expense = 0.0;
+			ReportItemResponse item = items.get(date);
+			double revenue = item != null ? valueOf(item.getRevenue()) : 0.0;
+			double expense = item != null ? valueOf(item.getExpense()) : 0.0;
 
-			if (type == ReportType.ALL || type == ReportType.SALE) {
-				Double r = invoiceRepository.sumTotalAmountByDate(date);
-				revenue = r != null ? r : 0.0;
+			if (withSalary) {
+				expense += totalMonthlySalary / date.lengthOfMonth();
 			}
 
-			switch (type) {
-			case ALL -> {
-				Double i = importRepository.sumTotalAmountByDate(date);
-				Double e = exportRepository.sumTotalExportAmountByDate(date);
-				Double o = expenseRepository.sumAmountByDate(date);
+			result.add(new ReportItemResponse(date, revenue, expense));
+		}
 
-				expense += i != null ? i : 0.0;
-				expense += e != null ? e : 0.0;
-				expense += o != null ? o : 0.0;
+		return result;
+	}
 
-				int daysInMonth = date.lengthOfMonth();
-				expense += totalMonthlySalary / daysInMonth;
+	/**
+	 * Lấy báo cáo gộp theo kỳ. Các dòng theo ngày (đã có bộ nhớ đệm và bảng tổng
+	 * hợp) được cộng dồn vào kỳ tương ứng, nên một năm chỉ còn 12 dòng theo tháng
+	 * hoặc 4 dòng theo quý.
+	 *
+	 * @param fromDate    ngày bắt đầu
+	 * @param toDate      ngày kết thúc
+	 * @param type        loại báo cáo
+	 * @param granularity mức gộp thời gian
+	 * @return danh sách báo cáo theo kỳ
+	 */
+	@Override
+	public List<ReportItemResponse> getReport(LocalDate fromDate, LocalDate toDate, ReportType type,
+			ReportGranularity granularity) {
+		List<ReportItemResponse> daily = getReport(fromDate, toDate, type);
+		if (granularity == null || granularity == ReportGranularity.DAY) {
+			return daily;
+		}
+
+		List<ReportItemResponse> result = new ArrayList<>();
+		LocalDate bucket = null;
+		double revenue = 0.0;
+		double expense = 0.0;
+
+		for (ReportItemResponse item : daily) {
+			LocalDate start = granularity.startOf(item.getDate());
+			if (start.isBefore(fromDate)) {
+				start = fromDate;
 			}
-			case IMPORT -> {
-				Double i = importRepository.sumTotalAmountByDate(date);
-				expense += i != null ? i : 0.0;
+			if (bucket != null && !bucket.equals(start)) {
+				result.add(new ReportItemResponse(bucket, revenue, expense));
+				revenue = 0.0;
+				expense = 0.0;
 			}
-			case EXPORT -> {
-				Double e = exportRepository.sumTotalExportAmountByDate(date);
-				expense += e != null ? e : 0.0;
+			bucket = start;
+			revenue += valueOf(item.getRevenue());
+			expense += valueOf(item.getExpense());
+		}
+		if (bucket != null) {
+			result.add(new ReportItemResponse(bucket, revenue, expense));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Lấy doanh thu và chi phí (không gồm lương) theo ngày. Các ngày đã có trong
+	 * bộ nhớ đệm được dùng lại, chỉ các đoạn ngày còn thiếu mới được đọc từ bảng
+	 * tổng hợp.
+	 */
+	private Map<LocalDate, ReportItemResponse> getSummaryItems(LocalDate fromDate, LocalDate toDate,
+			ReportType type) {
+		Map<LocalDate, ReportItemResponse> items = new HashMap<>();
+		long version = reportCacheService.currentVersion();
+
+		LocalDate missingFrom = null;
+		for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
+			ReportItemResponse cached = reportCacheService.get(date, type);
+			if (cached != null) {
+				items.put(date, cached);
+				if (missingFrom != null) {
+					loadSummaryItems(missingFrom, date.minusDays(1), type, version, items);
+					missingFrom = null;
+				}
+			} else if (missingFrom == null) {
+				missingFrom = date;
 			}
-			case IMPORT_EXPORT -> {
-				Double i = importRepository.sumTotalAmountByDate(date);
-				Double e = exportRepository.sumTotalExportAmountByDate(date);
-				expense += (i != null ? i : 0.0) + (e != null ? e : 0.0);
+		}
+		if (missingFrom != null) {
+			loadSummaryItems(missingFrom, toDate, type, version, items);
+		}
+
+		return items;
+	}
+
+	/**
+	 * Đọc các dòng tổng hợp đã được tính sẵn của một đoạn ngày, không quét lại hóa
+	 * đơn, nhập, xuất và chi phí, rồi lưu kết quả từng ngày vào bộ nhớ đệm.
+	 */
+	private void loadSummaryItems(LocalDate from, LocalDate to, ReportType type, long version,
+			Map<LocalDate, ReportItemResponse> items) {
+		boolean withRevenue = type == ReportType.ALL || type == ReportType.SALE;
+		boolean withImport = type == ReportType.ALL || type == ReportType.IMPORT || type == ReportType.IMPORT_EXPORT;
+		boolean withExport = type == ReportType.ALL || type == ReportType.EXPORT || type == ReportType.IMPORT_EXPORT;
+		boolean withOther = type == ReportType.ALL || type == ReportType.OTHER_EXPENSE;
+
+		Map<LocalDate, DailySummaryEntity> summaries = new HashMap<>();
+		for (DailySummaryEntity summary : dailySummaryService.getSummaries(from, to)) {
+			summaries.put(summary.getSummaryDate(), summary);
+		}
+
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			DailySummaryEntity summary = summaries.get(date);
+			double revenue = 0.0;
+			double expense = 0.0;
+
+			if (summary != null) {
+				revenue += withRevenue ? valueOf(summary.getRevenue()) : 0.0;
+				expense += withImport ? valueOf(summary.getImportCost()) : 0.0;
+				expense += withExport ? valueOf(summary.getExportCost()) : 0.0;
+				expense += withOther ? valueOf(summary.getOtherExpense()) : 0.0;
 			}
-			case OTHER_EXPENSE -> {
-				Double o = expenseRepository.sumAmountByDate(date);
-				expense += o != null ? o : 0.0;
+
+			ReportItemResponse item = new ReportItemResponse(date, revenue, expense);
+			reportCacheService.put(date, type, item, version);
+			items.put(date, item);
+		}
+	}
+
+	private double valueOf(Double value) {
+		return value != null ? value : 0.0;
+	}
+
+	/**
+	 * Bảng lương ngày dạng rút gọn: dòng thứ i ứng với ngày (i / số nhân viên) và
+	 * nhân viên (i % số nhân viên). Số ngày trong tháng chỉ tính một lần cho mỗi
+	 * ngày.
+	 */
+	private static final class SalarySheet {
+
+		private final LocalDate from;
+		private final long days;
+		private final String[] names;
+		private final double[] monthlySalaries;
+
+		SalarySheet(LocalDate from, long days, String[] names, double[] monthlySalaries) {
+			this.from = from;
+			this.days = days;
+			this.names = names;
+			this.monthlySalaries = monthlySalaries;
+		}
+
+		long size() {
+			return days * names.length;
+		}
+
+		Stream<EmployeeDailySalaryResponse> rows(long start, long end) {
+			if (start >= end) {
+				return Stream.empty();
 			}
-			case SALARY -> {
+
+			int count = names.length;
+			long firstDay = start / count;
+			long lastDay = (end - 1) / count;
+
+			return LongStream.rangeClosed(firstDay, lastDay).boxed().flatMap(day -> {
+				LocalDate date = from.plusDays(day);
 				int daysInMonth = date.lengthOfMonth();
-				expense += totalMonthlySalary / daysInMonth;
-			}
-			case EMPLOYEE_INFO -> {
-				// Không tính toán chi phí nào cho loại này
-				expense += 0.0;
-			}
-			}
+				int first = day == firstDay ? (int) (start % count) : 0;
+				int last = day == lastDay ? (int) ((end - 1) % count) + 1 : count;
 
-			result.add(new ReportItemResponse(date, revenue, expense));
+				return IntStream.range(first, last).mapToObj(
+						i -> new EmployeeDailySalaryResponse(names[i], date, monthlySalaries[i] / daysInMonth));
+			});
 		}
-
-		return result;
 	}
 }
@@ -0,0 +1,128 @@
+package com.viettridao.cafe.service.impl;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viettridao.cafe.dto.response.reportstatistics.HourlySalesResponse;
+import com.viettridao.cafe.dto.response.reportstatistics.SalesHeatmapResponse;
+import com.viettridao.cafe.repository.InvoiceRepository;
+import com.viettridao.cafe.service.SalesHeatmapService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai bảng nhiệt doanh thu. Số liệu được cộng vào một mảng long phẳng:
+ * ô (thứ, giờ) nằm ở vị trí thứ * 24 + giờ, nửa đầu là số hóa đơn, nửa sau là
+ * doanh thu. Mỗi tuần đã kết thúc được lưu lại một mảng, nên bảng nhiệt nhiều
+ * tháng chỉ cần cộng các mảng đã có và truy vấn những ngày còn thiếu. Bộ nhớ
+ * chỉ giữ tối đa MAX_CLOSED_WEEKS tuần được xem gần nhất.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesHeatmapServiceImpl implements SalesHeatmapService {
+
+	private static final int DAYS = 7;
+	private static final int HOURS = 24;
+	private static final int CELLS = DAYS * HOURS;
+
+	// Số tuần đã kết thúc tối đa được giữ trong bộ nhớ (khoảng hai năm)
+	private static final int MAX_CLOSED_WEEKS = 104;
+
+	private final InvoiceRepository invoiceRepository;
+
+	// Bảng nhiệt của các tuần đã kết thúc, theo ngày thứ Hai đầu tuần
+	private final ClosedDayCache<LocalDate, long[]> closedWeeks = new ClosedDayCache<>(MAX_CLOSED_WEEKS);
+
+	@Override
+	@Transactional(readOnly = true)
+	public SalesHeatmapResponse getHeatmap(LocalDate from, LocalDate to) {
+		long[] grid = new long[2 * CELLS];
+		LocalDate today = LocalDate.now();
+		long version = closedWeeks.currentVersion();
+
+		// Các tuần trọn vẹn trong khoảng thời gian và đã kết thúc thì lấy từ bộ nhớ,
+		// phần còn lại được truy vấn bằng một lần duy nhất
+		LocalDate firstMissing = null;
+		LocalDate lastMissing = null;
+		Map<LocalDate, long[]> missingWeeks = new HashMap<>();
+		Set<LocalDate> cachedWeeks = new HashSet<>();
+
+		for (LocalDate week = weekStart(from); !week.isAfter(to); week = week.plusWeeks(1)) {
+			LocalDate weekEnd = week.plusDays(DAYS - 1);
+			boolean cacheable = !week.isBefore(from) && !weekEnd.isAfter(to) && weekEnd.isBefore(today);
+			long[] cached = cacheable ? closedWeeks.get(week) : null;
+
+			if (cached != null) {
+				addInto(grid, cached);
+				cachedWeeks.add(week);
+				continue;
+			}
+			if (cacheable) {
+				missingWeeks.put(week, new long[2 * CELLS]);
+			}
+			LocalDate start = week.isBefore(from) ? from : week;
+			LocalDate end = weekEnd.isAfter(to) ? to : weekEnd;
+			firstMissing = firstMissing == null ? start : firstMissing;
+			lastMissing = end;
+		}
+
+		if (firstMissing != null) {
+			for (HourlySalesResponse row : invoiceRepository.sumTotalAmountGroupByDateAndHour(
+					firstMissing.atStartOfDay(), lastMissing.plusDays(1).atStartOfDay())) {
+				LocalDate week = weekStart(row.getDate());
+				// Tuần nằm giữa đã được cộng từ bộ nhớ thì bỏ qua
+				if (cachedWeeks.contains(week)) {
+					continue;
+				}
+				long[] pending = missingWeeks.get(week);
+
+				int cell = (row.getDate().getDayOfWeek().getValue() - 1) * HOURS + row.getHour();
+				long count = row.getInvoiceCount() != null ? row.getInvoiceCount() : 0L;
+				long revenue = row.getRevenue() != null ? Math.round(row.getRevenue()) : 0L;
+
+				grid[cell] += count;
+				grid[CELLS + cell] += revenue;
+				if (pending != null) {
+					pending[cell] += count;
+					pending[CELLS + cell] += revenue;
+				}
+			}
+			missingWeeks.forEach((week, pending) -> closedWeeks.put(week, pending, version));
+		}
+
+		return new SalesHeatmapResponse(from, to, toMatrix(grid, 0), toMatrix(grid, CELLS));
+	}
+
+	@Override
+	public void evict(LocalDate date) {
+		if (date != null) {
+			closedWeeks.evict(weekStart(date));
+		}
+	}
+
+	private LocalDate weekStart(LocalDate date) {
+		return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+	}
+
+	private void addInto(long[] target, long[] source) {
+		for (int i = 0; i < target.length; i++) {
+			target[i] += source[i];
+		}
+	}
+
+	private long[][] toMatrix(long[] grid, int offset) {
+		long[][] matrix = new long[DAYS][HOURS];
+		for (int day = 0; day < DAYS; day++) {
+			System.arraycopy(grid, offset + day * HOURS, matrix[day], 0, HOURS);
+		}
+		return matrix;
+	}
+}
@@ -0,0 +1,239 @@
+package com.viettridao.cafe.service.impl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.viettridao.cafe.model.MenuItemEntity;
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.repository.MenuItemRepository;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.service.SearchIndexService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai chỉ mục tìm kiếm theo tên. Tên được chuẩn hóa (bỏ dấu, đ -> d,
+ * chữ thường) rồi tách thành các cụm 3 ký tự (trigram); tìm kiếm lấy giao các
+ * danh sách id của trigram trong từ khóa rồi kiểm tra lại bằng contains, thay
+ * cho câu LIKE '%...%' phải quét cả bảng.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SPACES = Pattern.compile("\\s+");
+
+	private final ProductRepository productRepository;
+	private final MenuItemRepository menuItemRepository;
+
+	private final NgramIndex products = new NgramIndex();
+	private final NgramIndex menuItems = new NgramIndex();
+
+	@Override
+	public List<Integer> searchProducts(String keyword) {
+		return products.search(fold(keyword));
+	}
+
+	@Override
+	public List<Integer> searchMenuItems(String keyword) {
+		return menuItems.search(fold(keyword));
+	}
+
+	@Override
+	public void onProductChanged(ProductEntity product) {
+		boolean active = !Boolean.TRUE.equals(product.getIsDeleted());
+		afterCommit(products, product.getId(), active ? product.getProductName() : null);
+	}
+
+	@Override
+	public void onMenuItemChanged(MenuItemEntity menuItem) {
+		boolean active = !Boolean.TRUE.equals(menuItem.getIsDeleted());
+		afterCommit(menuItems, menuItem.getId(), active ? menuItem.getItemName() : null);
+	}
+
+	/**
+	 * Chạy khi ứng dụng khởi động xong.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		Map<Integer, String> productNames = new HashMap<>();
+		productRepository.findAllByIsDeletedFalse().forEach(p -> productNames.put(p.getId(), p.getProductName()));
+		products.replaceAll(productNames);
+
+		Map<Integer, String> menuItemNames = new HashMap<>();
+		menuItemRepository.findByIsDeletedFalse().forEach(m -> menuItemNames.put(m.getId(), m.getItemName()));
+		menuItems.replaceAll(menuItemNames);
+	}
+
+	/**
+	 * Cập nhật chỉ mục sau khi giao dịch commit (ngay lập tức nếu không có giao
+	 * dịch). Tên null là bỏ khỏi chỉ mục.
+	 */
+	private void afterCommit(NgramIndex index, Integer id, String name) {
+		if (id == null) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					index.put(id, name);
+				}
+			});
+		} else {
+			index.put(id, name);
+		}
+	}
+
+	/**
+	 * Chuẩn hóa chuỗi để so khớp: bỏ dấu tiếng Việt, đ -> d, chữ thường, gộp
+	 * khoảng trắng.
+	 */
+	static String fold(String text) {
+		if (text == null) {
+			return "";
+		}
+		String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+		stripped = stripped.replace('đ', 'd').replace('Đ', 'D');
+		return SPACES.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+	}
+
+	/**
+	 * Chỉ mục trigram của một loại đối tượng: id -> tên đã chuẩn hóa và trigram ->
+	 * tập id.
+	 */
+	private static final class NgramIndex {
+
+		private static final int N = 3;
+
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+		private final Map<Integer, String> folded = new HashMap<>();
+		private final Map<String, Set<Integer>> postings = new HashMap<>();
+
+		void put(Integer id, String name) {
+			lock.writeLock().lock();
+			try {
+				removeLocked(id);
+				if (name != null) {
+					addLocked(id, name);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		void replaceAll(Map<Integer, String> entries) {
+			lock.writeLock().lock();
+			try {
+				folded.clear();
+				postings.clear();
+				entries.forEach((id, name) -> {
+					if (name != null) {
+						addLocked(id, name);
+					}
+				});
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		List<Integer> search(String query) {
+			List<Integer> result = new ArrayList<>();
+			lock.readLock().lock();
+			try {
+				if (query.length() < N) {
+					// Từ khóa quá ngắn để có trigram: duyệt tên trong bộ nhớ
+					folded.forEach((id, name) -> {
+						if (name.contains(query)) {
+							result.add(id);
+						}
+					});
+				} else {
+					Set<Integer> candidates = candidates(query);
+					for (Integer id : candidates) {
+						if (folded.get(id).contains(query)) {
+							result.add(id);
+						}
+					}
+				}
+				result.sort(Comparator.comparing((Integer id) -> folded.get(id)).thenComparing(id -> id));
+			} finally {
+				lock.readLock().unlock();
+			}
+			return result;
+		}
+
+		/**
+		 * Giao các tập id của mọi trigram trong từ khóa, bắt đầu từ tập nhỏ nhất.
+		 */
+		private Set<Integer> candidates(String query) {
+			List<Set<Integer>> sets = new ArrayList<>();
+			for (String gram : grams(query)) {
+				Set<Integer> ids = postings.get(gram);
+				if (ids == null) {
+					return Set.of();
+				}
+				sets.add(ids);
+			}
+			sets.sort(Comparator.comparingInt(Set::size));
+
+			Set<Integer> result = new HashSet<>(sets.get(0));
+			for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+				result.retainAll(sets.get(i));
+			}
+			return result;
+		}
+
+		private void addLocked(Integer id, String name) {
+			String key = fold(name);
+			folded.put(id, key);
+			for (String gram : grams(key)) {
+				postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+			}
+		}
+
+		private void removeLocked(Integer id) {
+			String key = folded.remove(id);
+			if (key == null) {
+				return;
+			}
+			for (String gram : grams(key)) {
+				Set<Integer> ids = postings.get(gram);
+				if (ids != null) {
+					ids.remove(id);
+					if (ids.isEmpty()) {
+						postings.remove(gram);
+					}
+				}
+			}
+		}
+
+		private static Set<String> grams(String text) {
+			Set<String> grams = new HashSet<>();
+			for (int i = 0; i + N <= text.length(); i++) {
+				grams.add(text.substring(i, i + N));
+			}
+			return grams;
+		}
+	}
+}
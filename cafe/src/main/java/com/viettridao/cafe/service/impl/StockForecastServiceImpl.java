@@ -0,0 +1,258 @@
+package com.viettridao.cafe.service.impl;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.viettridao.cafe.common.StockMovementType;
+import com.viettridao.cafe.dto.response.product.StockForecastResponse;
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.repository.StockMovementRepository;
+import com.viettridao.cafe.service.StockForecastService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai dự báo hết hàng. Lượng dùng trong ngày được cộng vào một ô theo
+ * ngày; khi ngày đã qua, ô được gộp vào trung bình trượt hàm mũ (ngày không
+ * dùng được tính là 0) rồi bỏ đi. Vì vậy dự báo không phải đọc lại lịch sử xuất
+ * và mỗi sản phẩm chỉ giữ vài giá trị trong bộ nhớ.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockForecastServiceImpl implements StockForecastService {
+
+	// Trọng số của ngày mới nhất trong trung bình trượt
+	private static final double ALPHA = 0.3;
+
+	// Số ngày lịch sử dùng khi dựng lại (trọng số của ngày cũ hơn không đáng kể)
+	private static final int REBUILD_DAYS = 90;
+
+	private final ProductRepository productRepository;
+	private final StockMovementRepository stockMovementRepository;
+
+	private final Map<Integer, ProductForecast> forecasts = new HashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	@Override
+	public void onMovement(Integer productId, StockMovementType type, int quantity, int balance, LocalDate date) {
+		if (productId == null) {
+			return;
+		}
+
+		// Đánh số khi giao dịch đang giữ khóa dòng sản phẩm để bỏ qua số dư cũ nếu
+		// hai giao dịch commit không theo thứ tự
+		long version = sequence.incrementAndGet();
+		double usage = isUsage(type) ? -quantity : 0;
+		LocalDate usageDate = date != null ? date : LocalDate.now();
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					applyMovement(productId, usage, usageDate, balance, version);
+				}
+			});
+		} else {
+			applyMovement(productId, usage, usageDate, balance, version);
+		}
+	}
+
+	@Override
+	public synchronized void onProductChanged(ProductEntity product) {
+		if (Boolean.TRUE.equals(product.getIsDeleted())) {
+			forecasts.remove(product.getId());
+			return;
+		}
+
+		ProductForecast forecast = forecasts.get(product.getId());
+		if (forecast != null) {
+			forecast.describe(product);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<StockForecastResponse> getForecasts() {
+		// Sản phẩm mới chỉ có số liệu từ sổ kho: nạp tên và đơn vị bằng một truy vấn
+		List<Integer> unnamed;
+		synchronized (this) {
+			unnamed = forecasts.entrySet().stream().filter(e -> !e.getValue().described).map(Map.Entry::getKey)
+					.toList();
+		}
+		List<ProductEntity> products = unnamed.isEmpty() ? List.of()
+				: productRepository.findActiveWithUnitByIdIn(unnamed);
+
+		LocalDate today = LocalDate.now();
+		List<StockForecastResponse> result = new ArrayList<>();
+		synchronized (this) {
+			products.forEach(p -> {
+				ProductForecast forecast = forecasts.get(p.getId());
+				if (forecast != null) {
+					forecast.describe(p);
+				}
+			});
+
+			for (Map.Entry<Integer, ProductForecast> entry : forecasts.entrySet()) {
+				ProductForecast forecast = entry.getValue();
+				if (!forecast.described) {
+					continue; // sản phẩm đã bị xóa
+				}
+				forecast.closeThrough(today.minusDays(1));
+				result.add(forecast.toResponse(entry.getKey(), today));
+			}
+		}
+
+		result.sort(Comparator.comparing(StockForecastResponse::getDaysUntilStockout,
+				Comparator.nullsLast(Comparator.naturalOrder()))
+				.thenComparing(StockForecastResponse::getProductName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+		return result;
+	}
+
+	/**
+	 * Chạy khi ứng dụng khởi động xong.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		LocalDate today = LocalDate.now();
+		Map<Integer, ProductForecast> rebuilt = new HashMap<>();
+		long version = sequence.incrementAndGet();
+		for (ProductEntity product : productRepository.findActiveWithUnit()) {
+			ProductForecast forecast = new ProductForecast();
+			forecast.describe(product);
+			forecast.balance = product.getQuantity() != null ? product.getQuantity() : 0;
+			forecast.version = version;
+			rebuilt.put(product.getId(), forecast);
+		}
+
+		for (Object[] row : stockMovementRepository.sumDailyUsageSince(today.minusDays(REBUILD_DAYS))) {
+			ProductForecast forecast = rebuilt.get(((Number) row[0]).intValue());
+			if (forecast != null && row[2] != null) {
+				forecast.addUsage(toLocalDate(row[1]), ((Number) row[2]).doubleValue());
+			}
+		}
+		rebuilt.values().forEach(f -> f.closeThrough(today.minusDays(1)));
+
+		synchronized (this) {
+			forecasts.clear();
+			forecasts.putAll(rebuilt);
+		}
+	}
+
+	private synchronized void applyMovement(Integer productId, double usage, LocalDate date, int balance,
+			long version) {
+		ProductForecast forecast = forecasts.computeIfAbsent(productId, id -> new ProductForecast());
+		if (usage != 0) {
+			forecast.addUsage(date, usage);
+		}
+		if (version > forecast.version) {
+			forecast.balance = balance;
+			forecast.version = version;
+		}
+	}
+
+	private static boolean isUsage(StockMovementType type) {
+		return type == StockMovementType.EXPORT || type == StockMovementType.CONSUMPTION;
+	}
+
+	private static LocalDate toLocalDate(Object value) {
+		if (value instanceof java.sql.Date date) {
+			return date.toLocalDate();
+		}
+		return (LocalDate) value;
+	}
+
+	/**
+	 * Trạng thái dự báo của một sản phẩm: trung bình trượt đến hết ngày
+	 * closedThrough và lượng dùng của các ngày chưa gộp.
+	 */
+	private static final class ProductForecast {
+
+		private String productName;
+		private String unitName;
+		private boolean described;
+		private int balance;
+		private long version;
+		private Double average; // null khi chưa có ngày nào được gộp
+		private LocalDate closedThrough;
+		private final NavigableMap<LocalDate, Double> openDays = new TreeMap<>();
+
+		void describe(ProductEntity product) {
+			productName = product.getProductName();
+			unitName = product.getUnit() != null ? product.getUnit().getUnitName() : null;
+			described = true;
+		}
+
+		void addUsage(LocalDate date, double usage) {
+			if (closedThrough != null && !date.isAfter(closedThrough)) {
+				// Ngày đã gộp: trung bình trượt là tuyến tính nên cộng thẳng phần đóng góp
+				// của ngày đó (đã suy giảm theo số ngày trôi qua)
+				long age = ChronoUnit.DAYS.between(date, closedThrough);
+				average += ALPHA * usage * Math.pow(1 - ALPHA, age);
+			} else {
+				openDays.merge(date, usage, Double::sum);
+			}
+		}
+
+		/**
+		 * Gộp các ngày đến hết ngày through vào trung bình trượt.
+		 */
+		void closeThrough(LocalDate through) {
+			NavigableMap<LocalDate, Double> closing = openDays.headMap(through, true);
+			for (Map.Entry<LocalDate, Double> day : closing.entrySet()) {
+				if (average == null) {
+					average = day.getValue(); // ngày có lượng dùng đầu tiên
+				} else {
+					decayTo(day.getKey().minusDays(1));
+					average = ALPHA * day.getValue() + (1 - ALPHA) * average;
+				}
+				closedThrough = day.getKey();
+			}
+			closing.clear();
+			if (average != null) {
+				decayTo(through);
+			}
+		}
+
+		/**
+		 * Gộp các ngày không có lượng dùng (bằng 0) từ sau closedThrough đến hết ngày
+		 * date.
+		 */
+		private void decayTo(LocalDate date) {
+			long days = ChronoUnit.DAYS.between(closedThrough, date);
+			if (days > 0) {
+				average *= Math.pow(1 - ALPHA, days);
+				closedThrough = date;
+			}
+		}
+
+		StockForecastResponse toResponse(Integer productId, LocalDate today) {
+			double dailyUsage = average != null ? average : 0.0;
+			Double daysLeft = null;
+			LocalDate stockoutDate = null;
+			if (dailyUsage > 0) {
+				daysLeft = Math.max(0, balance) / dailyUsage;
+				stockoutDate = today.plusDays((long) Math.floor(daysLeft));
+			}
+			return new StockForecastResponse(productId, productName, unitName, balance, dailyUsage, daysLeft,
+					stockoutDate);
+		}
+	}
+}
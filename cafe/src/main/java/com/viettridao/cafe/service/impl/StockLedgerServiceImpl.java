@@ -0,0 +1,187 @@
+package com.viettridao.cafe.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viettridao.cafe.common.StockMovementType;
+import com.viettridao.cafe.dto.request.product.StockMovementRequest;
+import com.viettridao.cafe.dto.response.product.StockDriftResponse;
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.model.StockMovementEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.repository.StockMovementRepository;
+import com.viettridao.cafe.service.LowStockAlertService;
+import com.viettridao.cafe.service.StockForecastService;
+import com.viettridao.cafe.service.StockLedgerService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai sổ kho. Số dư được lấy từ chính câu lệnh cập nhật tồn kho trên bảng
+ * products: sau UPDATE, dòng sản phẩm bị khóa đến hết giao dịch nên số dư đọc
+ * lại và dòng sổ kho được ghi luôn khớp nhau, kể cả khi nhiều giao dịch cùng
+ * nhập xuất một sản phẩm.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockLedgerServiceImpl implements StockLedgerService {
+
+	private final StockMovementRepository stockMovementRepository;
+	private final ProductRepository productRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+	private final LowStockAlertService lowStockAlertService;
+	private final StockForecastService stockForecastService;
+
+	@Override
+	@Transactional
+	public int record(ProductEntity product, StockMovementType type, int quantity, Integer referenceId,
+			LocalDate date) {
+		productRepository.addQuantity(product.getId(), quantity);
+		return writeMovement(product, type, quantity, referenceId, date);
+	}
+
+	@Override
+	@Transactional
+	public Map<Integer, Integer> recordBatch(StockMovementType type, List<StockMovementRequest> movements) {
+		if (movements.isEmpty()) {
+			return Map.of();
+		}
+
+		// Tổng thay đổi theo sản phẩm, cập nhật theo thứ tự id để các giao dịch luôn
+		// khóa dòng sản phẩm theo cùng một thứ tự
+		Map<Integer, Integer> totals = new TreeMap<>();
+		for (StockMovementRequest movement : movements) {
+			totals.merge(movement.getProductId(), movement.getQuantity(), Integer::sum);
+		}
+
+		// Đẩy các sản phẩm mới tạo xuống trước khi cập nhật bằng JDBC
+		productRepository.flush();
+		List<Object[]> updates = totals.entrySet().stream()
+				.map(e -> new Object[] { e.getValue(), e.getKey() }).toList();
+		jdbcTemplate.batchUpdate("UPDATE products SET quantity = COALESCE(quantity, 0) + ? WHERE product_id = ?",
+				updates);
+
+		Map<Integer, Integer> balances = new HashMap<>();
+		namedParameterJdbcTemplate.query(
+				"SELECT product_id, COALESCE(quantity, 0) FROM products WHERE product_id IN (:ids) FOR UPDATE",
+				Map.of("ids", totals.keySet()), rs -> {
+					balances.put(rs.getInt(1), rs.getInt(2));
+				});
+
+		// Số dư lũy kế của từng dòng: bắt đầu từ số dư trước lô
+		Map<Integer, Integer> running = new HashMap<>();
+		totals.forEach((productId, total) -> running.put(productId, balances.getOrDefault(productId, 0) - total));
+		LocalDateTime now = LocalDateTime.now();
+		List<Object[]> rows = new ArrayList<>(movements.size());
+		for (StockMovementRequest movement : movements) {
+			int balance = running.merge(movement.getProductId(), movement.getQuantity(), Integer::sum);
+			LocalDate movementDate = movement.getMovementDate() != null ? movement.getMovementDate() : now.toLocalDate();
+			rows.add(new Object[] { movement.getProductId(), type.name(), movement.getQuantity(), balance,
+					movement.getReferenceId(), movementDate, now });
+			stockForecastService.onMovement(movement.getProductId(), type, movement.getQuantity(), balance,
+					movementDate);
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO stock_movements "
+				+ "(product_id, type, quantity, balance, reference_id, movement_date, created_at) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+
+		return balances;
+	}
+
+	@Override
+	@Transactional
+	public int withdraw(ProductEntity product, StockMovementType type, int quantity, Integer referenceId,
+			LocalDate date) {
+		if (quantity <= 0) {
+			throw new IllegalArgumentException("Số lượng xuất phải lớn hơn 0.");
+		}
+		if (productRepository.removeQuantityIfAvailable(product.getId(), quantity) == 0) {
+			throw new RuntimeException("Số lượng xuất vượt quá tồn kho");
+		}
+		return writeMovement(product, type, -quantity, referenceId, date);
+	}
+
+	/**
+	 * Đọc lại số dư sau câu lệnh UPDATE (dòng sản phẩm đang bị khóa bởi giao dịch
+	 * này) và ghi dòng sổ kho tương ứng.
+	 */
+	private int writeMovement(ProductEntity product, StockMovementType type, int quantity, Integer referenceId,
+			LocalDate date) {
+		int balance = productRepository.findQuantityForUpdate(product.getId());
+		product.setQuantity(balance);
+
+		StockMovementEntity movement = new StockMovementEntity();
+		movement.setProduct(product);
+		movement.setType(type);
+		movement.setQuantity(quantity);
+		movement.setBalance(balance);
+		movement.setReferenceId(referenceId);
+		movement.setMovementDate(date != null ? date : LocalDate.now());
+		movement.setCreatedAt(LocalDateTime.now());
+		stockMovementRepository.save(movement);
+		lowStockAlertService.onStockChanged(product);
+		stockForecastService.onMovement(product.getId(), type, quantity, balance, movement.getMovementDate());
+
+		return balance;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public int getCurrentStock(Integer productId) {
+		return stockMovementRepository.findTopByProduct_IdOrderByIdDesc(productId).map(StockMovementEntity::getBalance)
+				.orElseGet(() -> productRepository.findById(productId).map(ProductEntity::getQuantity)
+						.filter(Objects::nonNull).orElse(0));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<StockDriftResponse> reconcile() {
+		List<StockDriftResponse> drifts = new ArrayList<>();
+		for (Object[] row : stockMovementRepository.findStockReconciliation()) {
+			Integer ledgerBalance = toInteger(row[2]);
+			Integer productQuantity = toInteger(row[3]);
+			int imported = toInteger(row[4]);
+			int exported = toInteger(row[5]);
+			int adjusted = toInteger(row[6]);
+			int historyStock = imported - exported + adjusted;
+
+			if (ledgerBalance == null || !ledgerBalance.equals(productQuantity) || ledgerBalance != historyStock) {
+				drifts.add(new StockDriftResponse(toInteger(row[0]), (String) row[1], ledgerBalance, productQuantity,
+						imported, exported, adjusted, historyStock));
+			}
+		}
+		return drifts;
+	}
+
+	/**
+	 * Chạy khi ứng dụng khởi động xong, trước việc tính lại giá vốn (phát lại từ
+	 * sổ kho).
+	 */
+	@Override
+	@Transactional
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillOpeningBalances() {
+		stockMovementRepository.backfillOpeningBalances();
+	}
+
+	private Integer toInteger(Object value) {
+		return value != null ? ((Number) value).intValue() : null;
+	}
+}
@@ -0,0 +1,171 @@
+package com.viettridao.cafe.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.viettridao.cafe.service.WarehouseHistoryService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai xuất lịch sử kho ra CSV. Dữ liệu được đọc bằng con trỏ chỉ tiến
+ * (MySQL trả từng dòng thay vì nạp cả kết quả vào bộ nhớ) và ghi ngay ra luồng
+ * phản hồi, nên bộ nhớ dùng không phụ thuộc số dòng lịch sử. Thứ tự dòng giống
+ * trang lịch sử (mới nhất trước).
+ */
+@Service
+@RequiredArgsConstructor
+public class WarehouseHistoryServiceImpl implements WarehouseHistoryService {
+
+	// Ký tự đầu ô khiến Excel/LibreOffice hiểu nội dung là công thức
+	private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+	private static final String IMPORT_SQL = """
+			SELECT i.imports_id, i.import_date, p.product_name, i.quantity, i.price, i.total_amount, e.full_name
+			FROM imports i
+			JOIN products p ON p.product_id = i.product_id
+			LEFT JOIN employees e ON e.employee_id = i.employee_id
+			WHERE i.is_deleted = false
+				AND (? IS NULL OR i.import_date >= ?)
+				AND (? IS NULL OR i.import_date <= ?)
+				AND (? IS NULL OR i.product_id = ?)
+			ORDER BY i.import_date DESC, i.imports_id DESC
+			""";
+
+	private static final String EXPORT_SQL = """
+			SELECT x.exports_id, x.export_date, p.product_name, x.quantity, x.total_export_amount, e.full_name
+			FROM exports x
+			JOIN products p ON p.product_id = x.product_id
+			LEFT JOIN employees e ON e.employee_id = x.employee_id
+			WHERE x.is_deleted = false
+				AND (? IS NULL OR x.export_date >= ?)
+				AND (? IS NULL OR x.export_date <= ?)
+				AND (? IS NULL OR x.product_id = ?)
+			ORDER BY x.export_date DESC, x.exports_id DESC
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void writeImportCsv(LocalDate from, LocalDate to, Integer productId, OutputStream out)
+			throws IOException {
+		stream(IMPORT_SQL, from, to, productId, out,
+				List.of("Mã nhập", "Ngày nhập", "Sản phẩm", "Số lượng", "Đơn giá", "Tổng tiền", "Nhân viên"));
+	}
+
+	@Override
+	public void writeExportCsv(LocalDate from, LocalDate to, Integer productId, OutputStream out)
+			throws IOException {
+		stream(EXPORT_SQL, from, to, productId, out,
+				List.of("Mã xuất", "Ngày xuất", "Sản phẩm", "Số lượng", "Tổng tiền", "Nhân viên"));
+	}
+
+	/**
+	 * Chạy truy vấn với con trỏ chỉ tiến, chỉ đọc và ghi từng dòng kết quả thành
+	 * một dòng CSV.
+	 */
+	private void stream(String sql, LocalDate from, LocalDate to, Integer productId, OutputStream out,
+			List<String> header) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writer.write('\uFEFF'); // BOM để Excel nhận đúng UTF-8
+		writeLine(writer, header);
+
+		try {
+			jdbcTemplate.query(con -> {
+				PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+						ResultSet.CONCUR_READ_ONLY);
+				ps.setFetchSize(Integer.MIN_VALUE); // MySQL: trả kết quả theo luồng từng dòng
+				setDate(ps, 1, from);
+				setDate(ps, 2, from);
+				setDate(ps, 3, to);
+				setDate(ps, 4, to);
+				setInteger(ps, 5, productId);
+				setInteger(ps, 6, productId);
+				return ps;
+			}, rs -> {
+				List<String> values = new ArrayList<>(header.size());
+				for (int i = 1; i <= header.size(); i++) {
+					Object value = rs.getObject(i);
+					if (value instanceof String text) {
+						values.add(neutralizeFormula(text));
+					} else {
+						values.add(value != null ? value.toString() : "");
+					}
+				}
+				try {
+					writeLine(writer, values);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		writer.flush();
+	}
+
+	private static void setDate(PreparedStatement ps, int index, LocalDate date) throws SQLException {
+		if (date != null) {
+			ps.setDate(index, Date.valueOf(date));
+		} else {
+			ps.setNull(index, Types.DATE);
+		}
+	}
+
+	private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+		if (value != null) {
+			ps.setInt(index, value);
+		} else {
+			ps.setNull(index, Types.INTEGER);
+		}
+	}
+
+	private static void writeLine(Writer writer, List<String> values) throws IOException {
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write(escape(values.get(i)));
+		}
+		writer.write("\r\n");
+	}
+
+	/**
+	 * Thêm dấu nháy đơn trước ô văn bản (tên sản phẩm, tên nhân viên) bắt đầu bằng
+	 * =, +, -, @, tab hoặc xuống dòng để bảng tính không chạy nội dung như công
+	 * thức. Ô số không đi qua đây nên số âm vẫn giữ nguyên.
+	 */
+	private static String neutralizeFormula(String value) {
+		if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+			return "'" + value;
+		}
+		return value;
+	}
+
+	/**
+	 * Đặt giá trị trong dấu nháy kép nếu có dấu phẩy, nháy kép hoặc xuống dòng.
+	 */
+	private static String escape(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+				&& value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
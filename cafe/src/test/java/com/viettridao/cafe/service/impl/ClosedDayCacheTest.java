@@ -0,0 +1,82 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ClosedDayCacheTest {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+	private final ClosedDayCache<LocalDate, String> cache = new ClosedDayCache<>(3);
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void valueReadBeforeEvictIsNotStored() {
+		long version = cache.currentVersion();
+		cache.evict(DAY);
+
+		cache.put(DAY, "cũ", version);
+
+		assertNull(cache.get(DAY));
+	}
+
+	@Test
+	void valueStoredBeforeCommitIsEvictedAfterCompletion() {
+		TransactionSynchronizationManager.initSynchronization();
+		cache.evict(DAY);
+
+		// Một yêu cầu đọc khác chạy sau lần xóa đầu nhưng trước khi giao dịch
+		// commit, nên vẫn thấy dữ liệu cũ
+		cache.put(DAY, "cũ", cache.currentVersion());
+		assertEquals("cũ", cache.get(DAY));
+
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+		}
+
+		assertNull(cache.get(DAY));
+	}
+
+	@Test
+	void evictIfRemovesOnlyMatchingDaysAndRejectsOlderValues() {
+		long version = cache.currentVersion();
+		cache.put(DAY, "a", version);
+		cache.put(DAY.plusDays(1), "b", version);
+		cache.put(DAY.plusDays(2), "c", version);
+
+		cache.evictIf(date -> date.isAfter(DAY));
+		cache.put(DAY.plusDays(1), "cũ", version);
+
+		assertEquals("a", cache.get(DAY));
+		assertNull(cache.get(DAY.plusDays(1)));
+		assertNull(cache.get(DAY.plusDays(2)));
+	}
+
+	@Test
+	void leastRecentlyUsedDayIsDroppedWhenFull() {
+		long version = cache.currentVersion();
+		cache.put(DAY, "a", version);
+		cache.put(DAY.plusDays(1), "b", version);
+		cache.put(DAY.plusDays(2), "c", version);
+		cache.get(DAY);
+
+		cache.put(DAY.plusDays(3), "d", version);
+
+		assertEquals(3, cache.size());
+		assertEquals("a", cache.get(DAY));
+		assertNull(cache.get(DAY.plusDays(1)));
+	}
+}
@@ -0,0 +1,58 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.viettridao.cafe.repository.DailySummaryRepository;
+import com.viettridao.cafe.service.ReportCacheService;
+
+@ExtendWith(MockitoExtension.class)
+class DailySummaryServiceImplTest {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+	@Mock
+	private DailySummaryRepository dailySummaryRepository;
+
+	@Mock
+	private ReportCacheService reportCacheService;
+
+	@InjectMocks
+	private DailySummaryServiceImpl dailySummaryService;
+
+	@Test
+	void addingRevenueUpdatesTheDayAndEvictsItsCache() {
+		dailySummaryService.addRevenue(DAY, 120_000.0);
+
+		verify(dailySummaryRepository).addAmounts(DAY, 120_000.0, 0.0, 0.0, 0.0);
+		verify(reportCacheService).evict(DAY);
+	}
+
+	@Test
+	void negativeAmountIsAppliedAsAnAdjustment() {
+		dailySummaryService.addOtherExpense(DAY, -30_000.0);
+
+		verify(dailySummaryRepository).addAmounts(eq(DAY), eq(0.0), eq(0.0), eq(0.0), eq(-30_000.0));
+	}
+
+	@Test
+	void zeroAmountOrMissingDateLeavesSummaryUntouched() {
+		dailySummaryService.addImportCost(DAY, 0.0);
+		dailySummaryService.addExportCost(null, 50_000.0);
+
+		verify(dailySummaryRepository, never()).addAmounts(any(), anyDouble(), anyDouble(), anyDouble(),
+				anyDouble());
+		verify(reportCacheService, never()).evict(any());
+	}
+}
@@ -0,0 +1,154 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+
+import com.viettridao.cafe.common.StockMovementType;
+import com.viettridao.cafe.dto.request.product.StockMovementRequest;
+import com.viettridao.cafe.model.InvoiceDetailEntity;
+import com.viettridao.cafe.model.MenuItemEntity;
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.service.DailySummaryService;
+import com.viettridao.cafe.service.InventoryCostingService;
+import com.viettridao.cafe.service.LowStockAlertService;
+import com.viettridao.cafe.service.ProductSnapshotService;
+import com.viettridao.cafe.service.RecipeService;
+import com.viettridao.cafe.service.StockLedgerService;
+
+@ExtendWith(MockitoExtension.class)
+class IngredientConsumptionServiceImplTest {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+	private static final int MENU_ITEM_ID = 1;
+	private static final int PRODUCT_ID = 5;
+
+	@Mock
+	private RecipeService recipeService;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private StockLedgerService stockLedgerService;
+
+	@Mock
+	private InventoryCostingService inventoryCostingService;
+
+	@Mock
+	private ProductSnapshotService productSnapshotService;
+
+	@Mock
+	private LowStockAlertService lowStockAlertService;
+
+	@Mock
+	private DailySummaryService dailySummaryService;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@InjectMocks
+	private IngredientConsumptionServiceImpl ingredientConsumptionService;
+
+	@Test
+	void usageBelowOneUnitIsCarriedOver() {
+		givenProduct(0.2);
+
+		int consumed = ingredientConsumptionService.consume(10, List.of(item(1)), DAY);
+
+		assertEquals(0, consumed);
+		assertEquals(0.6, writtenRemainder(), 1e-9);
+		verify(stockLedgerService, never()).recordBatch(any(), anyList());
+	}
+
+	@Test
+	void remainderEqualToStaleSnapshotIsStillWritten() {
+		// Ảnh chụp trên entity là 0,4 nhưng dòng đã khóa đang là 0: kết quả 0,4 trùng
+		// ảnh chụp cũ vẫn phải được ghi xuống
+		ProductEntity product = givenProduct(0.0);
+		product.setConsumptionRemainder(0.4);
+
+		ingredientConsumptionService.consume(10, List.of(item(1)), DAY);
+
+		assertEquals(0.4, writtenRemainder(), 1e-9);
+	}
+
+	@Test
+	void carriedRemainderIsDeductedOnceItReachesOneUnit() {
+		givenProduct(0.8);
+		// lenient: lô cập nhật phần lẻ gọi batchUpdate với bộ tham số khác
+		lenient().when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+				any(KeyHolder.class))).thenAnswer(invocation -> {
+					invocation.getArgument(2, KeyHolder.class).getKeyList().add(Map.of("id", 100));
+					return new int[] { 1 };
+				});
+		when(stockLedgerService.recordBatch(eq(StockMovementType.CONSUMPTION), anyList()))
+				.thenReturn(Map.of(PRODUCT_ID, 9));
+
+		// 0,8 còn lại + 3 phần x 0,4 = 2,0: trừ 2, không còn phần lẻ
+		int consumed = ingredientConsumptionService.consume(10, List.of(item(3)), DAY);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<StockMovementRequest>> movements = ArgumentCaptor.forClass(List.class);
+		verify(stockLedgerService).recordBatch(eq(StockMovementType.CONSUMPTION), movements.capture());
+		assertEquals(1, consumed);
+		assertEquals(-2, movements.getValue().get(0).getQuantity());
+		assertEquals(0.0, writtenRemainder(), 1e-9);
+	}
+
+	private double writtenRemainder() {
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(eq("UPDATE products SET consumption_remainder = ? WHERE product_id = ?"),
+				args.capture());
+		Object[] row = args.getValue().get(0);
+		assertEquals(PRODUCT_ID, row[1]);
+		return (Double) row[0];
+	}
+
+	private ProductEntity givenProduct(double remainder) {
+		ProductEntity product = new ProductEntity();
+		product.setId(PRODUCT_ID);
+		product.setQuantity(11);
+		product.setLatestPrice(1000.0);
+
+		when(recipeService.getRecipes(List.of(MENU_ITEM_ID))).thenReturn(Map.of(MENU_ITEM_ID, Map.of(PRODUCT_ID, 0.4)));
+		when(productRepository.findAllById(Set.of(PRODUCT_ID))).thenReturn(List.of(product));
+		List<Object[]> remainders = new ArrayList<>();
+		remainders.add(new Object[] { PRODUCT_ID, remainder });
+		when(productRepository.findConsumptionRemaindersForUpdate(Set.of(PRODUCT_ID))).thenReturn(remainders);
+		return product;
+	}
+
+	private InvoiceDetailEntity item(int quantity) {
+		MenuItemEntity menuItem = new MenuItemEntity();
+		menuItem.setId(MENU_ITEM_ID);
+		InvoiceDetailEntity item = new InvoiceDetailEntity();
+		item.setMenuItem(menuItem);
+		item.setQuantity(quantity);
+		return item;
+	}
+}
@@ -0,0 +1,80 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.viettridao.cafe.common.StockMovementType;
+import com.viettridao.cafe.dto.request.imports.ImportRequest;
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.model.UnitEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.repository.UnitRepository;
+import com.viettridao.cafe.service.ImportService;
+import com.viettridao.cafe.service.InventoryCostingService;
+import com.viettridao.cafe.service.StockLedgerService;
+
+/**
+ * Kiểm tra giá vốn bình quân tính lại bằng cách phát lại sổ kho trùng với giá
+ * vốn được cập nhật từng lần khi nhập hàng.
+ */
+@SpringBootTest
+class InventoryCostingServiceImplTest {
+
+	private static final double DELTA = 1e-9;
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private StockLedgerService stockLedgerService;
+
+	@Autowired
+	private InventoryCostingService inventoryCostingService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private UnitRepository unitRepository;
+
+	@Test
+	void replayMatchesIncrementalCost() {
+		UnitEntity unit = new UnitEntity();
+		unit.setUnitName("Kg");
+		unit.setIsDeleted(false);
+		unit = unitRepository.save(unit);
+		LocalDate today = LocalDate.now();
+
+		// Nhập 10 giá 100, xuất 4, điều chỉnh +3 (không có giá), nhập thêm 5 giá 130
+		importService.createImport(request(null, "Cà phê hạt", 10, unit.getId(), 100.0, today));
+		ProductEntity product = productRepository.findByProductNameIgnoreCase("Cà phê hạt").orElseThrow();
+		stockLedgerService.withdraw(product, StockMovementType.EXPORT, 4, null, today);
+		stockLedgerService.record(product, StockMovementType.ADJUSTMENT, 3, null, today);
+		importService.createImport(request(product.getId(), "Cà phê hạt", 5, unit.getId(), 130.0, today));
+
+		double incremental = productRepository.findById(product.getId()).orElseThrow().getAverageCost();
+		assertEquals((9 * 100.0 + 5 * 130.0) / 14, incremental, DELTA);
+
+		inventoryCostingService.replayAll();
+
+		double replayed = productRepository.findById(product.getId()).orElseThrow().getAverageCost();
+		assertEquals(incremental, replayed, DELTA);
+	}
+
+	private ImportRequest request(Integer productId, String productName, int quantity, Integer unitId, double price,
+			LocalDate date) {
+		ImportRequest request = new ImportRequest();
+		request.setProductId(productId);
+		request.setProductName(productName);
+		request.setQuantity(quantity);
+		request.setUnitId(unitId);
+		request.setPrice(price);
+		request.setImportDate(date);
+		return request;
+	}
+}
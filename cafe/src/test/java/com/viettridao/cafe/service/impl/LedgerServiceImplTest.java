@@ -0,0 +1,112 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.viettridao.cafe.common.InvoiceStatus;
+import com.viettridao.cafe.common.LedgerEntryType;
+import com.viettridao.cafe.model.InvoiceEntity;
+import com.viettridao.cafe.model.LedgerEntryEntity;
+import com.viettridao.cafe.repository.DataMigrationRepository;
+import com.viettridao.cafe.repository.LedgerEntryRepository;
+import com.viettridao.cafe.service.BudgetTotalsService;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceImplTest {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+	@Mock
+	private LedgerEntryRepository ledgerEntryRepository;
+
+	@Mock
+	private DataMigrationRepository dataMigrationRepository;
+
+	@Mock
+	private BudgetTotalsService budgetTotalsService;
+
+	@InjectMocks
+	private LedgerServiceImpl ledgerService;
+
+	@Test
+	void deletingPaidInvoicePostsReversingEntry() {
+		InvoiceEntity invoice = invoice(InvoiceStatus.PAID, 120_000.0);
+		invoice.setIsDeleted(true);
+		when(ledgerEntryRepository.sumAmountByTypeAndReferenceId(LedgerEntryType.INVOICE, 7)).thenReturn(120_000.0);
+
+		ledgerService.syncInvoice(invoice);
+
+		ArgumentCaptor<LedgerEntryEntity> entry = ArgumentCaptor.forClass(LedgerEntryEntity.class);
+		verify(ledgerEntryRepository).save(entry.capture());
+		assertEquals(LedgerEntryType.INVOICE, entry.getValue().getType());
+		assertEquals(7, entry.getValue().getReferenceId());
+		assertEquals(DAY, entry.getValue().getEntryDate());
+		assertEquals(-120_000.0, entry.getValue().getAmount());
+		verify(budgetTotalsService).evict(DAY);
+	}
+
+	@Test
+	void changedPaidTotalPostsOnlyTheDifference() {
+		InvoiceEntity invoice = invoice(InvoiceStatus.PAID, 150_000.0);
+		when(ledgerEntryRepository.sumAmountByTypeAndReferenceId(LedgerEntryType.INVOICE, 7)).thenReturn(120_000.0);
+
+		ledgerService.syncInvoice(invoice);
+
+		ArgumentCaptor<LedgerEntryEntity> entry = ArgumentCaptor.forClass(LedgerEntryEntity.class);
+		verify(ledgerEntryRepository).save(entry.capture());
+		assertEquals(30_000.0, entry.getValue().getAmount());
+	}
+
+	@Test
+	void invoiceAlreadyInSyncPostsNothing() {
+		InvoiceEntity invoice = invoice(InvoiceStatus.UNPAID, 80_000.0);
+		invoice.setIsDeleted(true);
+		when(ledgerEntryRepository.sumAmountByTypeAndReferenceId(LedgerEntryType.INVOICE, 7)).thenReturn(0.0);
+
+		ledgerService.syncInvoice(invoice);
+
+		verify(ledgerEntryRepository, never()).save(any());
+	}
+
+	@Test
+	void backfillRunsOnlyWhenMarkerIsNew() {
+		when(dataMigrationRepository.markApplied(LedgerServiceImpl.BACKFILL_MIGRATION)).thenReturn(0);
+
+		ledgerService.backfillOnce();
+
+		verify(ledgerEntryRepository, never()).backfillFromSources();
+	}
+
+	@Test
+	void backfillRunsEvenIfLedgerAlreadyHasEntries() {
+		when(dataMigrationRepository.markApplied(LedgerServiceImpl.BACKFILL_MIGRATION)).thenReturn(1);
+
+		ledgerService.backfillOnce();
+
+		verify(ledgerEntryRepository).backfillFromSources();
+	}
+
+	private InvoiceEntity invoice(InvoiceStatus status, Double total) {
+		InvoiceEntity invoice = new InvoiceEntity();
+		invoice.setId(7);
+		invoice.setStatus(status);
+		invoice.setTotalAmount(total);
+		invoice.setIsDeleted(false);
+		invoice.setCreatedAt(LocalDateTime.of(DAY, LocalTime.NOON));
+		return invoice;
+	}
+}
@@ -0,0 +1,73 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.viettridao.cafe.common.ReportFormat;
+import com.viettridao.cafe.common.ReportGranularity;
+import com.viettridao.cafe.common.ReportJobStatus;
+import com.viettridao.cafe.common.ReportType;
+import com.viettridao.cafe.dto.response.reportstatistics.ReportJobResponse;
+import com.viettridao.cafe.service.ReportExportService;
+
+class ReportJobServiceImplTest {
+
+	@TempDir
+	Path jobDir;
+
+	private ReportJobServiceImpl reportJobService;
+
+	@BeforeEach
+	void setUp() {
+		reportJobService = new ReportJobServiceImpl(mock(ReportExportService.class), jobDir.toString(), 1, 5);
+	}
+
+	@AfterEach
+	void tearDown() {
+		reportJobService.shutdown();
+	}
+
+	@Test
+	void finishedJobForClosedRangeIsReused() throws InterruptedException {
+		LocalDate to = LocalDate.now().minusDays(1);
+
+		ReportJobResponse first = awaitDone(submit(to.minusDays(6), to));
+		ReportJobResponse second = submit(to.minusDays(6), to);
+
+		assertEquals(first.getId(), second.getId());
+	}
+
+	@Test
+	void finishedJobCoveringTodayIsNotReused() throws InterruptedException {
+		LocalDate to = LocalDate.now();
+
+		ReportJobResponse first = awaitDone(submit(to.minusDays(6), to));
+		ReportJobResponse second = submit(to.minusDays(6), to);
+
+		assertNotEquals(first.getId(), second.getId());
+	}
+
+	private ReportJobResponse submit(LocalDate from, LocalDate to) {
+		return reportJobService.submit(from, to, ReportType.ALL, ReportGranularity.DAY, ReportFormat.TXT);
+	}
+
+	private ReportJobResponse awaitDone(ReportJobResponse job) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			ReportJobResponse current = reportJobService.getJob(job.getId());
+			if (current.getStatus() == ReportJobStatus.DONE) {
+				return current;
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Tác vụ xuất báo cáo không hoàn tất");
+	}
+}
@@ -0,0 +1,112 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.model.UnitEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.repository.UnitRepository;
+import com.viettridao.cafe.service.SearchIndexService;
+
+/**
+ * So sánh tìm sản phẩm qua chỉ mục trigram với câu LIKE '%...%' trên bảng sản
+ * phẩm đã nạp sẵn dữ liệu (H2). Thời gian chỉ được in ra để tham khảo, không
+ * dùng làm điều kiện đạt/không đạt vì phụ thuộc máy chạy. Dữ liệu được rollback
+ * sau bài kiểm tra.
+ */
+@SpringBootTest
+@Transactional
+class SearchIndexServiceImplBenchmarkTest {
+
+	private static final int PRODUCTS = 20_000;
+	private static final int ROUNDS = 50;
+
+	private static final String[] KINDS = { "Cà phê", "Trà", "Sữa", "Bột", "Đường", "Siro", "Bánh", "Kem" };
+	private static final String[] FLAVORS = { "đào", "vải", "dâu", "cam", "bạc hà", "socola", "vani", "matcha" };
+
+	@Autowired
+	private SearchIndexService searchIndexService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private UnitRepository unitRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void indexMatchesLikeQueryAndReportsTimings() {
+		seedProducts();
+		searchIndexService.rebuild();
+
+		// Từ khóa không dấu: hai cách phải trả về cùng một tập sản phẩm
+		for (String keyword : List.of("matcha", "socola 12", "vani")) {
+			Set<Integer> viaIndex = new HashSet<>(searchIndexService.searchProducts(keyword));
+			Set<Integer> viaLike = productRepository.findByProductNameContainingIgnoreCaseAndIsDeletedFalse(keyword)
+					.stream().map(ProductEntity::getId).collect(Collectors.toSet());
+			assertFalse(viaIndex.isEmpty());
+			assertEquals(viaLike, viaIndex);
+		}
+
+		// Từ khóa không dấu khớp tên có dấu, điều câu LIKE không làm được
+		assertTrue(productRepository.findByProductNameContainingIgnoreCaseAndIsDeletedFalse("ca phe dao").isEmpty());
+		assertFalse(searchIndexService.searchProducts("ca phe dao").isEmpty());
+
+		double indexMillis = averageMillis(() -> searchIndexService.searchProducts("matcha 1"));
+		double likeMillis = averageMillis(
+				() -> productRepository.findByProductNameContainingIgnoreCaseAndIsDeletedFalse("matcha 1"));
+		System.out.printf("Tìm \"matcha 1\" trên %d sản phẩm: chỉ mục %.3f ms, LIKE %.3f ms (trung bình %d lần)%n",
+				PRODUCTS, indexMillis, likeMillis, ROUNDS);
+	}
+
+	@AfterTransaction
+	void restoreIndex() {
+		// Dữ liệu mẫu đã bị rollback: dựng lại chỉ mục từ dữ liệu thật
+		searchIndexService.rebuild();
+	}
+
+	private void seedProducts() {
+		UnitEntity unit = new UnitEntity();
+		unit.setUnitName("Gói");
+		unit.setIsDeleted(false);
+		unit = unitRepository.saveAndFlush(unit);
+
+		List<Object[]> rows = new ArrayList<>(PRODUCTS);
+		for (int i = 0; i < PRODUCTS; i++) {
+			String name = KINDS[i % KINDS.length] + " " + FLAVORS[(i / KINDS.length) % FLAVORS.length] + " " + i;
+			rows.add(new Object[] { name, 0, false, unit.getId() });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO products (product_name, quantity, is_deleted, unit_id) VALUES (?, ?, ?, ?)",
+				rows);
+	}
+
+	private double averageMillis(Supplier<?> search) {
+		// Chạy nóng trước khi đo
+		for (int i = 0; i < 5; i++) {
+			search.get();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			search.get();
+		}
+		return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+	}
+}
@@ -0,0 +1,62 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.viettridao.cafe.model.ProductEntity;
+
+class SearchIndexServiceImplTest {
+
+	// Không dùng repository: chỉ mục được cập nhật trực tiếp qua onProductChanged
+	private final SearchIndexServiceImpl searchIndexService = new SearchIndexServiceImpl(null, null);
+
+	@Test
+	void foldStripsVietnameseMarksAndCase() {
+		assertEquals("ca phe", SearchIndexServiceImpl.fold("Cà phê"));
+		assertEquals("ca phe", SearchIndexServiceImpl.fold("ca phe"));
+		assertEquals("ca phe sua da", SearchIndexServiceImpl.fold("  CÀ PHÊ   sữa đá "));
+	}
+
+	@Test
+	void foldMapsDStrokeToD() {
+		assertEquals("duong den", SearchIndexServiceImpl.fold("Đường đen"));
+		assertEquals("dd", SearchIndexServiceImpl.fold("đĐ"));
+		assertEquals("", SearchIndexServiceImpl.fold(null));
+	}
+
+	@Test
+	void searchMatchesWithOrWithoutAccents() {
+		searchIndexService.onProductChanged(product(1, "Cà phê sữa"));
+		searchIndexService.onProductChanged(product(2, "Đường đen"));
+		searchIndexService.onProductChanged(product(3, "Trà đào"));
+
+		assertEquals(List.of(1), searchIndexService.searchProducts("ca phe"));
+		assertEquals(List.of(1), searchIndexService.searchProducts("CÀ PHÊ"));
+		assertEquals(List.of(2), searchIndexService.searchProducts("duong"));
+		assertEquals(List.of(2), searchIndexService.searchProducts("đường"));
+		// Từ khóa ngắn hơn một trigram vẫn được so khớp
+		assertEquals(List.of(3), searchIndexService.searchProducts("đà"));
+	}
+
+	@Test
+	void deletedProductIsRemovedFromTheIndex() {
+		ProductEntity product = product(1, "Cà phê sữa");
+		searchIndexService.onProductChanged(product);
+
+		product.setIsDeleted(true);
+		searchIndexService.onProductChanged(product);
+
+		assertEquals(List.of(), searchIndexService.searchProducts("ca phe"));
+	}
+
+	private ProductEntity product(int id, String name) {
+		ProductEntity product = new ProductEntity();
+		product.setId(id);
+		product.setProductName(name);
+		product.setIsDeleted(false);
+		return product;
+	}
+}
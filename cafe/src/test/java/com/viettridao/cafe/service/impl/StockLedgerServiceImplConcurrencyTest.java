@@ -0,0 +1,105 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.viettridao.cafe.common.StockMovementType;
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.model.StockMovementEntity;
+import com.viettridao.cafe.model.UnitEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.repository.StockMovementRepository;
+import com.viettridao.cafe.service.StockLedgerService;
+
+/**
+ * Kiểm tra xuất kho đồng thời trên cơ sở dữ liệu thật (H2): nhiều luồng cùng
+ * trừ một sản phẩm, mỗi lần gọi là một giao dịch riêng.
+ */
+@SpringBootTest
+class StockLedgerServiceImplConcurrencyTest {
+
+	private static final int STARTING_STOCK = 20;
+	private static final int THREADS = 8;
+	private static final int ATTEMPTS_PER_THREAD = 10;
+
+	@Autowired
+	private StockLedgerService stockLedgerService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockMovementRepository stockMovementRepository;
+
+	@Test
+	void concurrentWithdrawalsNeverOversell() throws Exception {
+		ProductEntity product = createProduct(STARTING_STOCK);
+
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					ProductEntity copy = new ProductEntity();
+					copy.setId(product.getId());
+					try {
+						stockLedgerService.withdraw(copy, StockMovementType.EXPORT, 1, null, LocalDate.now());
+						succeeded.incrementAndGet();
+					} catch (RuntimeException e) {
+						rejected.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		int remaining = productRepository.findById(product.getId()).orElseThrow().getQuantity();
+		List<StockMovementEntity> withdrawals = stockMovementRepository.findAll().stream()
+				.filter(m -> m.getType() == StockMovementType.EXPORT && m.getProduct().getId().equals(product.getId()))
+				.toList();
+
+		assertEquals(STARTING_STOCK, succeeded.get());
+		assertEquals(THREADS * ATTEMPTS_PER_THREAD - STARTING_STOCK, rejected.get());
+		assertEquals(0, remaining);
+		assertEquals(STARTING_STOCK, withdrawals.size());
+		assertTrue(withdrawals.stream().allMatch(m -> m.getBalance() >= 0));
+	}
+
+	private ProductEntity createProduct(int quantity) {
+		UnitEntity unit = new UnitEntity();
+		unit.setUnitName("Hộp");
+		unit.setIsDeleted(false);
+
+		ProductEntity product = new ProductEntity();
+		product.setProductName("Sữa tươi");
+		product.setQuantity(quantity);
+		product.setIsDeleted(false);
+		product.setUnit(unit); // đơn vị được lưu cùng sản phẩm (cascade)
+		return productRepository.save(product);
+	}
+}
@@ -0,0 +1,81 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.viettridao.cafe.dto.request.imports.ImportRequest;
+import com.viettridao.cafe.dto.request.product.ProductRequest;
+import com.viettridao.cafe.model.ProductEntity;
+import com.viettridao.cafe.model.UnitEntity;
+import com.viettridao.cafe.repository.ProductRepository;
+import com.viettridao.cafe.repository.UnitRepository;
+import com.viettridao.cafe.service.ImportService;
+import com.viettridao.cafe.service.ProductService;
+import com.viettridao.cafe.service.StockLedgerService;
+
+/**
+ * Kiểm tra đối chiếu tồn kho trên cơ sở dữ liệu thật (H2) sau khi sửa sản phẩm.
+ * Chỉ xét sản phẩm của bài kiểm tra vì các bài khác dùng chung cơ sở dữ liệu.
+ */
+@SpringBootTest
+class StockLedgerServiceImplReconcileTest {
+
+	private static final String PRODUCT_NAME = "Bột cacao đối chiếu";
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private StockLedgerService stockLedgerService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private UnitRepository unitRepository;
+
+	@Test
+	void editingProductQuantityDoesNotReportDrift() {
+		UnitEntity unit = new UnitEntity();
+		unit.setUnitName("Gói");
+		unit.setIsDeleted(false);
+		unit = unitRepository.save(unit);
+
+		productService.save(request(unit.getId(), 10, 50_000.0));
+		ProductEntity product = productRepository.findAll().stream()
+				.filter(p -> PRODUCT_NAME.equals(p.getProductName())).findFirst().orElseThrow();
+
+		ImportRequest restock = new ImportRequest();
+		restock.setProductId(product.getId());
+		restock.setQuantity(5);
+		restock.setPrice(52_000.0);
+		restock.setImportDate(LocalDate.now());
+		importService.createImport(restock);
+
+		// Sửa số lượng trên sản phẩm: 15 -> 20 rồi 20 -> 12
+		productService.update(product.getId(), request(unit.getId(), 20, 55_000.0));
+		productService.update(product.getId(), request(unit.getId(), 12, 55_000.0));
+
+		assertEquals(12, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+		assertTrue(stockLedgerService.reconcile().stream().noneMatch(d -> d.getProductId().equals(product.getId())));
+	}
+
+	private ProductRequest request(Integer unitId, int quantity, double price) {
+		ProductRequest request = new ProductRequest();
+		request.setProductName(PRODUCT_NAME);
+		request.setUnitId(unitId);
+		request.setQuantity(quantity);
+		request.setPrice(price);
+		request.setImportDate(LocalDate.now());
+		return request;
+	}
+}
@@ -0,0 +1,52 @@
+package com.viettridao.cafe.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+@ExtendWith(MockitoExtension.class)
+class WarehouseHistoryServiceImplTest {
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@InjectMocks
+	private WarehouseHistoryServiceImpl warehouseHistoryService;
+
+	@Test
+	void textCellsStartingWithFormulaCharactersAreNeutralized() throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getObject(1)).thenReturn(7);
+		when(rs.getObject(2)).thenReturn(LocalDate.of(2025, 3, 10));
+		when(rs.getObject(3)).thenReturn("=HYPERLINK(\"http://x\")");
+		when(rs.getObject(4)).thenReturn(-2);
+		when(rs.getObject(5)).thenReturn(1500.0);
+		when(rs.getObject(6)).thenReturn("@admin");
+		doAnswer(invocation -> {
+			invocation.getArgument(1, RowCallbackHandler.class).processRow(rs);
+			return null;
+		}).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		warehouseHistoryService.writeExportCsv(null, null, null, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertEquals("7,2025-03-10,\"'=HYPERLINK(\"\"http://x\"\")\",-2,1500.0,'@admin", lines[1]);
+	}
+}